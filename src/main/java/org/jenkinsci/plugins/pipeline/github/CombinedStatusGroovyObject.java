@@ -0,0 +1,92 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import groovy.lang.GroovyObjectSupport;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.client.CombinedStatusCache;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedCombinedStatus;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Groovy wrapper over a commit's combined status: the overall state and the latest status of each context.
+ *
+ * Pages are fetched on demand and shared through {@link CombinedStatusCache}, using the client of the pull
+ * request it was obtained from, so that it survives a pipeline restart along with that pull request.
+ *
+ * @author Aaron Whiteside
+ * @see ExtendedCombinedStatus
+ */
+public class CombinedStatusGroovyObject extends GroovyObjectSupport implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final PullRequestGroovyObject pullRequest;
+    private final RepositoryId repository;
+    private final String sha;
+
+    CombinedStatusGroovyObject(final PullRequestGroovyObject pullRequest,
+                               final RepositoryId repository,
+                               final String sha) {
+        this.pullRequest = pullRequest;
+        this.repository = repository;
+        this.sha = sha;
+    }
+
+    @Whitelisted
+    public String getSha() {
+        return sha;
+    }
+
+    /**
+     * @return failure, pending or success
+     */
+    @Whitelisted
+    public String getState() {
+        return getPage(1, PagedIterable.DEFAULT_PAGE_SIZE).getState();
+    }
+
+    /**
+     * @return the number of contexts with a status
+     */
+    @Whitelisted
+    public int getTotalCount() {
+        return getPage(1, PagedIterable.DEFAULT_PAGE_SIZE).getTotalCount();
+    }
+
+    @Whitelisted
+    public Iterable<CommitStatusGroovyObject> getStatuses() {
+        return new StatusesIterable(this);
+    }
+
+    private ExtendedCombinedStatus getPage(final int page, final int pageSize) {
+        try {
+            return CombinedStatusCache.getPage(pullRequest.getCommitService(), repository, sha, page, pageSize);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class StatusesIterable extends PagedIterable<CommitStatusGroovyObject> {
+        private static final long serialVersionUID = 1L;
+
+        private final CombinedStatusGroovyObject combinedStatus;
+
+        private StatusesIterable(final CombinedStatusGroovyObject combinedStatus) {
+            this.combinedStatus = combinedStatus;
+        }
+
+        @Override
+        protected List<CommitStatusGroovyObject> fetchPage(final int page, final int pageSize) {
+            return combinedStatus.getPage(page, pageSize)
+                    .getStatuses()
+                    .stream()
+                    .map(CommitStatusGroovyObject::new)
+                    .collect(toList());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Job;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers, per job, the id of the comment {@link PullRequestGroovyObject#upsertComment(String, String)} keeps
+ * up to date for each pull request and marker.
+ *
+ * Saved with the job's configuration, so ids survive restarts. Only the most recently set ids are kept, a
+ * forgotten one merely costs a search of the pull request's comments.
+ *
+ * @author Aaron Whiteside
+ */
+public class CommentIdAction extends InvisibleAction {
+
+    private static final int MAX_COMMENT_IDS =
+            Integer.getInteger(CommentIdAction.class.getName() + ".maxCommentIds", 100);
+
+    // rather than the job's monitor, which Jenkins holds for its own purposes
+    private static final Object ADD_LOCK = new Object();
+
+    private final transient Object lock = new Object();
+
+    // "number marker" -> comment id, least recently set first
+    private Map<String, Long> commentIds = new LinkedHashMap<>();
+
+    static CommentIdAction get(final Job<?, ?> job) {
+        synchronized (ADD_LOCK) {
+            CommentIdAction action = job.getAction(CommentIdAction.class);
+            if (action == null) {
+                action = new CommentIdAction();
+                job.addAction(action);
+            }
+            return action;
+        }
+    }
+
+    Long getCommentId(final int number, final String marker) {
+        synchronized (lock) {
+            return commentIds.get(key(number, marker));
+        }
+    }
+
+    void setCommentId(final Job<?, ?> job, final int number, final String marker, final Long commentId)
+            throws IOException {
+        synchronized (lock) {
+            String key = key(number, marker);
+            commentIds.remove(key);
+            if (commentId != null) {
+                commentIds.put(key, commentId);
+                Iterator<Long> eldest = commentIds.values().iterator();
+                while (commentIds.size() > MAX_COMMENT_IDS && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        job.save();
+    }
+
+    private Object readResolve() {
+        // the lock is transient, and ids saved before they were ordered came back as a HashMap
+        CommentIdAction action = new CommentIdAction();
+        if (commentIds != null) {
+            action.commentIds.putAll(commentIds);
+        }
+        return action;
+    }
+
+    private static String key(final int number, final String marker) {
+        return number + " " + marker;
+    }
+}
@@ -0,0 +1,222 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.client.PageIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A run's merged copy of a pull request's comments, kept up to date with the API's {@code since} parameter so
+ * that each read only fetches comments created or edited since the last one.
+ *
+ * Logs are held in memory while the run is active and written through to the run's directory, so they survive
+ * a restart. Both are dropped once the run is finalized.
+ *
+ * Cursors order comments by last update then id, an edited comment is therefore returned again.
+ *
+ * {@code since} never reports deleted comments, so every {@code reconcileIntervalSeconds} (10 minutes by
+ * default) the whole list is fetched instead and comments no longer on GitHub are dropped.
+ *
+ * @author Aaron Whiteside
+ */
+public final class CommentLog<T extends Comment> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommentLog.class);
+
+    private static final String DIRECTORY = "pipeline-github";
+
+    private static final long RECONCILE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(
+            Long.getLong(CommentLog.class.getName() + ".reconcileIntervalSeconds", 600L));
+
+    private static final Comparator<Comment> ORDER = Comparator
+            .comparing((Comment c) -> updatedAt(c))
+            .thenComparingLong(Comment::getId);
+
+    // run externalizable id + '\n' + name -> log
+    private static final Map<String, CommentLog<?>> logs = new ConcurrentHashMap<>();
+
+    private final Map<Long, T> comments = new HashMap<>();
+    private Date highWatermark;
+    private long lastFullFetchMillis;
+
+    @FunctionalInterface
+    interface Fetcher<T> {
+        /**
+         * @param since null to fetch every comment
+         */
+        PageIterator<T> fetch(Date since) throws IOException;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Comment> CommentLog<T> get(final Run<?, ?> run, final String name) {
+        return (CommentLog<T>) logs.computeIfAbsent(run.getExternalizableId() + '\n' + name, k -> load(run, name));
+    }
+
+    /**
+     * Fetches what's new and returns the comments after the cursor, oldest first.
+     *
+     * @param cursor as returned by {@link #cursor}, or null for every comment
+     */
+    synchronized List<T> since(final Run<?, ?> run,
+                               final String name,
+                               final Fetcher<T> fetcher,
+                               final String cursor) throws IOException {
+        long now = System.currentTimeMillis();
+        boolean full = highWatermark == null || now - lastFullFetchMillis >= RECONCILE_INTERVAL_MILLIS;
+        Set<Long> fetched = full ? new HashSet<>() : null;
+
+        boolean changed = false;
+        // since is inclusive, so the comments at the high watermark come back every time
+        for (final Collection<T> page : fetcher.fetch(full ? null : highWatermark)) {
+            for (final T comment : page) {
+                Date updated = updatedAt(comment);
+                T previous = comments.put(comment.getId(), comment);
+                if (previous == null || updated.after(updatedAt(previous))) {
+                    changed = true;
+                }
+                if (highWatermark == null || updated.after(highWatermark)) {
+                    highWatermark = updated;
+                }
+                if (fetched != null) {
+                    fetched.add(comment.getId());
+                }
+            }
+        }
+        if (full) {
+            // deleted on GitHub
+            changed |= comments.keySet().retainAll(fetched);
+            lastFullFetchMillis = now;
+        }
+        if (changed) {
+            spill(run, name);
+        }
+
+        Position after = Position.parse(cursor);
+        List<T> result = new ArrayList<>();
+        for (final T comment : comments.values()) {
+            if (after == null || after.isBefore(comment)) {
+                result.add(comment);
+            }
+        }
+        result.sort(ORDER);
+        return result;
+    }
+
+    /**
+     * @return the cursor to pass to the next call, given the comments the previous one returned
+     */
+    static String cursor(final List<? extends Comment> comments, final String previous) {
+        if (comments.isEmpty()) {
+            return previous;
+        }
+        Comment last = comments.get(comments.size() - 1);
+        return updatedAt(last).getTime() + ":" + last.getId();
+    }
+
+    private static Date updatedAt(final Comment comment) {
+        return comment.getUpdatedAt() != null ? comment.getUpdatedAt() : comment.getCreatedAt();
+    }
+
+    private void spill(final Run<?, ?> run, final String name) {
+        File file = file(run, name);
+        try {
+            if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+                throw new IOException("Unable to create " + file.getParentFile());
+            }
+            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+                out.writeObject(this);
+            }
+        } catch (final IOException e) {
+            // only costs a full fetch after a restart
+            LOG.warn("Unable to write {}", file, e);
+        }
+    }
+
+    private static CommentLog<?> load(final Run<?, ?> run, final String name) {
+        File file = file(run, name);
+        if (file.isFile()) {
+            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+                return (CommentLog<?>) in.readObject();
+            } catch (final IOException | ClassNotFoundException e) {
+                LOG.warn("Unable to read {}, comments will be fetched again", file, e);
+            }
+        }
+        return new CommentLog<>();
+    }
+
+    private static File file(final Run<?, ?> run, final String name) {
+        return new File(new File(run.getRootDir(), DIRECTORY), "comments-" + name + ".ser");
+    }
+
+    private static final class Position {
+        private final long updatedAt;
+        private final long id;
+
+        private Position(final long updatedAt, final long id) {
+            this.updatedAt = updatedAt;
+            this.id = id;
+        }
+
+        private boolean isBefore(final Comment comment) {
+            long time = updatedAt(comment).getTime();
+            return time > updatedAt || (time == updatedAt && comment.getId() > id);
+        }
+
+        private static Position parse(final String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return null;
+            }
+            int separator = cursor.indexOf(':');
+            try {
+                return new Position(Long.parseLong(cursor.substring(0, separator)),
+                        Long.parseLong(cursor.substring(separator + 1)));
+            } catch (final NumberFormatException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+
+    /**
+     * Drops a run's logs once it has finished.
+     */
+    @Extension
+    public static class LogCleaner extends RunListener<Run<?, ?>> {
+        @Override
+        public void onFinalized(final Run<?, ?> run) {
+            String prefix = run.getExternalizableId() + '\n';
+            logs.keySet().removeIf(key -> key.startsWith(prefix));
+            File directory = new File(run.getRootDir(), DIRECTORY);
+            File[] files = directory.listFiles((dir, name) -> name.startsWith("comments-"));
+            if (files != null) {
+                for (final File file : files) {
+                    if (!file.delete()) {
+                        LOG.debug("Unable to delete {}", file);
+                    }
+                }
+            }
+        }
+    }
+}
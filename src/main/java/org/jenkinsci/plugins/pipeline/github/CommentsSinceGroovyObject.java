@@ -0,0 +1,40 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import groovy.lang.GroovyObjectSupport;
+import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The comments returned by an incremental read, and the cursor to continue from.
+ *
+ * @author Aaron Whiteside
+ * @see PullRequestGroovyObject#commentsSince(String)
+ * @see PullRequestGroovyObject#reviewCommentsSince(String)
+ */
+public class CommentsSinceGroovyObject<T> extends GroovyObjectSupport {
+    private final List<T> comments;
+    private final String cursor;
+
+    CommentsSinceGroovyObject(final List<T> comments, final String cursor) {
+        this.comments = Collections.unmodifiableList(comments);
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return the comments, oldest first
+     */
+    @Whitelisted
+    public List<T> getComments() {
+        return comments;
+    }
+
+    /**
+     * @return the cursor to pass to the next read, null if there have been no comments yet
+     */
+    @Whitelisted
+    public String getCursor() {
+        return cursor;
+    }
+}
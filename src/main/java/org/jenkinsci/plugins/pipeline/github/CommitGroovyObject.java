@@ -5,6 +5,8 @@ import org.eclipse.egit.github.core.Commit;
 import org.eclipse.egit.github.core.CommitStatus;
 import org.eclipse.egit.github.core.RepositoryCommit;
 import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.client.CommitDetailsLoader;
+import org.jenkinsci.plugins.pipeline.github.client.CommitStatusPublisher;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedCommitComment;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedCommitService;
 import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
@@ -12,6 +14,7 @@ import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -37,15 +40,68 @@ import static java.util.stream.Collectors.toList;
  */
 public class CommitGroovyObject extends GroovyObjectSupport {
     private final RepositoryCommit commit;
+    private final PullRequestGroovyObject pullRequest;
     private final ExtendedCommitService commitService;
     private final RepositoryId base;
 
+    // the SHAs of the listing this commit came from and its index in it, see details()
+    private final List<String> listing;
+    private final int index;
+    private RepositoryCommit details;
+    private RepositoryCommit detailsWithPatches;
+
     CommitGroovyObject(final RepositoryCommit commit,
-                       final ExtendedCommitService commitService,
+                       final PullRequestGroovyObject pullRequest,
                        final RepositoryId base) {
+        this(commit, pullRequest, base, Collections.singletonList(commit.getSha()), 0);
+    }
+
+    CommitGroovyObject(final RepositoryCommit commit,
+                       final PullRequestGroovyObject pullRequest,
+                       final RepositoryId base,
+                       final List<String> listing,
+                       final int index) {
         this.commit = commit;
-        this.commitService = commitService;
+        this.pullRequest = pullRequest;
+        this.commitService = pullRequest.getCommitService();
         this.base = base;
+        this.listing = listing;
+        this.index = index;
+    }
+
+    /**
+     * Listings leave out a commit's stats and files, these are loaded on first use and those of the commits
+     * listed after it are prefetched. Their files' patches are left out, see {@link #detailsWithPatches()}.
+     */
+    private RepositoryCommit details() {
+        if (commit.getStats() != null && commit.getFiles() != null) {
+            return commit;
+        }
+        if (detailsWithPatches != null) {
+            return detailsWithPatches;
+        }
+        if (details == null) {
+            try {
+                details = CommitDetailsLoader.load(commitService, base, listing, index);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return details;
+    }
+
+    private RepositoryCommit detailsWithPatches() {
+        if (commit.getStats() != null && commit.getFiles() != null) {
+            return commit;
+        }
+        if (detailsWithPatches == null) {
+            try {
+                detailsWithPatches = commitService.getCommit(base, commit.getSha());
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return detailsWithPatches;
     }
 
     @Whitelisted
@@ -80,17 +136,17 @@ public class CommitGroovyObject extends GroovyObjectSupport {
 
     @Whitelisted
     public int getAdditions() {
-        return commit.getStats().getAdditions();
+        return details().getStats().getAdditions();
     }
 
     @Whitelisted
     public int getDeletions() {
-        return commit.getStats().getDeletions();
+        return details().getStats().getDeletions();
     }
 
     @Whitelisted
     public int getTotalChanges() {
-        return commit.getStats().getTotal();
+        return details().getStats().getTotal();
     }
 
     @Whitelisted
@@ -102,6 +158,14 @@ public class CommitGroovyObject extends GroovyObjectSupport {
         return stream::iterator;
     }
 
+    /**
+     * @return the latest status of each context, rather than every status ever set
+     */
+    @Whitelisted
+    public CombinedStatusGroovyObject getCombinedStatus() {
+        return new CombinedStatusGroovyObject(pullRequest, base, commit.getSha());
+    }
+
     @Whitelisted
     public List<CommitStatusGroovyObject> getStatuses() {
         try {
@@ -124,7 +188,7 @@ public class CommitGroovyObject extends GroovyObjectSupport {
 
     @Whitelisted
     public List<CommitFileGroovyObject> getFiles() {
-        return commit.getFiles()
+        return detailsWithPatches().getFiles()
                 .stream()
                 .map(CommitFileGroovyObject::new)
                 .collect(toList());
@@ -178,8 +242,7 @@ public class CommitGroovyObject extends GroovyObjectSupport {
         commitStatus.setDescription(description);
         commitStatus.setTargetUrl(targetUrl);
         try {
-            return new CommitStatusGroovyObject(
-                    commitService.createStatus(base, commit.getSha(), commitStatus));
+            return new CommitStatusGroovyObject(CommitStatusPublisher.publish(commitService, base, commit.getSha(), commitStatus));
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -21,7 +21,7 @@ public class CommitStatusGroovyObject extends GroovyObjectSupport {
 
     @Whitelisted
     public String getCreator() {
-        return commitStatus.getCreator().getLogin();
+        return GitHubHelper.userToLogin(commitStatus.getCreator());
     }
 
     @Whitelisted
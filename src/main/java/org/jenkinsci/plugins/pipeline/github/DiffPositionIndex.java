@@ -0,0 +1,90 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maps a line of a changed file to its "position" in the pull request diff, as required by review comments.
+ *
+ * The position is the number of lines below the file's first hunk header, with every subsequent hunk header,
+ * removed line and context line counted. Only lines present in the diff (added or context lines) have one.
+ *
+ * Each file's patch is parsed once into two parallel sorted arrays, lookups are a binary search.
+ *
+ * @author Aaron Whiteside
+ */
+final class DiffPositionIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -\\d+(?:,\\d+)? \\+(\\d+)(?:,\\d+)? @@.*");
+
+    private final Map<String, FilePositions> files = new HashMap<>();
+
+    void add(final String path, final String patch) {
+        if (patch != null) {
+            files.put(path, FilePositions.parse(patch));
+        }
+    }
+
+    /**
+     * @param line the 1-based line number in the new version of the file
+     * @return the diff position of the line, or null if the file or line is not part of the diff
+     */
+    Integer position(final String path, final int line) {
+        FilePositions positions = files.get(path);
+        return positions == null ? null : positions.position(line);
+    }
+
+    private static final class FilePositions implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] lines;
+        private final int[] positions;
+
+        private FilePositions(final int[] lines, final int[] positions) {
+            this.lines = lines;
+            this.positions = positions;
+        }
+
+        private Integer position(final int line) {
+            int index = Arrays.binarySearch(lines, line);
+            return index < 0 ? null : positions[index];
+        }
+
+        private static FilePositions parse(final String patch) {
+            int[] lines = new int[16];
+            int[] positions = new int[16];
+            int count = 0;
+
+            int position = -1;
+            int newLine = 0;
+            for (final String text : patch.split("\n", -1)) {
+                if (position < 0 && !text.startsWith("@@")) {
+                    // anything before the first hunk header isn't part of the diff
+                    continue;
+                }
+                position++;
+                if (text.startsWith("@@")) {
+                    Matcher matcher = HUNK_HEADER.matcher(text);
+                    if (matcher.matches()) {
+                        newLine = Integer.parseInt(matcher.group(1));
+                    }
+                } else if (text.startsWith("+") || text.startsWith(" ")) {
+                    if (count == lines.length) {
+                        lines = Arrays.copyOf(lines, count * 2);
+                        positions = Arrays.copyOf(positions, count * 2);
+                    }
+                    lines[count] = newLine++;
+                    positions[count] = position;
+                    count++;
+                }
+                // removed lines and "\ No newline at end of file" only advance the position
+            }
+            return new FilePositions(Arrays.copyOf(lines, count), Arrays.copyOf(positions, count));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import hudson.Extension;
+import hudson.model.ManagementLink;
+import org.jenkinsci.plugins.pipeline.github.client.CollaboratorPermissionCache;
+import org.jenkinsci.plugins.pipeline.github.client.CommitStatusPublisher;
+import org.jenkinsci.plugins.pipeline.github.client.ConditionalRequestCache;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedIssueService;
+import org.jenkinsci.plugins.pipeline.github.client.GitHubClientRegistry;
+import org.jenkinsci.plugins.pipeline.github.client.RequestPriority;
+import org.jenkinsci.plugins.pipeline.github.client.RequestScheduler;
+import org.jenkinsci.plugins.pipeline.github.trigger.CommentMatchBudget;
+import org.jenkinsci.plugins.pipeline.github.trigger.WebhookEventQueue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read only view of the plugin's GitHub API usage: remaining rate limit budget and queue depths per credential,
+ * the response cache statistics, commit status publishing, webhook event handling, comment trigger matching and
+ * authorization.
+ *
+ * @author Aaron Whiteside
+ */
+@Extension
+public class GitHubApiManagementLink extends ManagementLink {
+
+    @Override
+    public String getIconFileName() {
+        return "network.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "Pipeline: GitHub API Usage";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Rate limit budget, request queues and response cache statistics of the Pipeline: GitHub plugin.";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "pipeline-github";
+    }
+
+    public Map<String, RequestScheduler> getSchedulers() {
+        return GitHubClientRegistry.getSchedulers();
+    }
+
+    public List<RequestPriority> getPriorities() {
+        return Arrays.asList(RequestPriority.values());
+    }
+
+    public ConditionalRequestCache getResponseCache() {
+        return GitHubClientRegistry.getResponseCache();
+    }
+
+    public long getSkippedSyncCalls() {
+        return ExtendedIssueService.getSkippedSyncCalls();
+    }
+
+    public long getPublishedStatuses() {
+        return CommitStatusPublisher.getPublishedCount();
+    }
+
+    public long getSuppressedStatuses() {
+        return CommitStatusPublisher.getSuppressedCount();
+    }
+
+    public long getCoalescedStatuses() {
+        return CommitStatusPublisher.getCoalescedCount();
+    }
+
+    public long getFailedStatuses() {
+        return CommitStatusPublisher.getFailedCount();
+    }
+
+    public WebhookEventQueue.Overflow getWebhookOverflow() {
+        return WebhookEventQueue.getOverflow();
+    }
+
+    public int getWebhookCapacity() {
+        return WebhookEventQueue.getCapacity();
+    }
+
+    public int getWebhookThreads() {
+        return WebhookEventQueue.getThreads();
+    }
+
+    public int getWebhookQueueDepth() {
+        return WebhookEventQueue.getDepth();
+    }
+
+    public long getWebhookSubmitted() {
+        return WebhookEventQueue.getSubmittedCount();
+    }
+
+    public long getWebhookHandled() {
+        return WebhookEventQueue.getHandledCount();
+    }
+
+    public long getWebhookFailed() {
+        return WebhookEventQueue.getFailedCount();
+    }
+
+    public long getWebhookDropped() {
+        return WebhookEventQueue.getDroppedCount();
+    }
+
+    public long getWebhookRejected() {
+        return WebhookEventQueue.getRejectedCount();
+    }
+
+    public long getWebhookAverageWaitMillis() {
+        return WebhookEventQueue.getAverageWaitMillis();
+    }
+
+    public long getWebhookMaxWaitMillis() {
+        return WebhookEventQueue.getMaxWaitMillis();
+    }
+
+    public long getWebhookAverageHandlingMillis() {
+        return WebhookEventQueue.getAverageHandlingMillis();
+    }
+
+    public String getWebhookThroughput() {
+        return String.format("%.2f", WebhookEventQueue.getThroughput());
+    }
+
+    public long getCommentMatchEvaluations() {
+        return CommentMatchBudget.getEvaluationCount();
+    }
+
+    public long getCommentMatchCpuAborts() {
+        return CommentMatchBudget.getCpuAbortCount();
+    }
+
+    public long getCommentMatchTimeoutAborts() {
+        return CommentMatchBudget.getTimeoutAbortCount();
+    }
+
+    public long getPermissionCacheHits() {
+        return CollaboratorPermissionCache.getHitCount();
+    }
+
+    public long getPermissionCacheMisses() {
+        return CollaboratorPermissionCache.getMissCount();
+    }
+
+    public long getPermissionCacheInvalidations() {
+        return CollaboratorPermissionCache.getInvalidationCount();
+    }
+}
@@ -0,0 +1,149 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A set of path globs compiled into a single trie of path segments, so that any number of patterns can be
+ * matched against a path in one pass over its segments.
+ *
+ * Supported syntax, patterns are matched against the whole path:
+ * - {@code *} matches any characters within a segment
+ * - {@code ?} matches a single character within a segment
+ * - {@code **} matches zero or more whole segments
+ * - a trailing {@code /} is short for {@code /**}, i.e. everything below that directory
+ *
+ * @author Aaron Whiteside
+ */
+final class GlobTrie {
+
+    private final Node root = new Node(false);
+    private int size;
+
+    /**
+     * @return the id of the added pattern, ids are assigned sequentially from 0
+     */
+    int add(final String pattern) {
+        String glob = pattern.endsWith("/") ? pattern + "**" : pattern;
+        Node node = root;
+        for (final String segment : glob.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            node = node.child(segment);
+        }
+        int id = size++;
+        node.terminals.add(id);
+        return id;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the ids of every pattern matching the path
+     */
+    BitSet match(final String path) {
+        List<Node> active = new ArrayList<>();
+        addWithClosure(active, Collections.newSetFromMap(new IdentityHashMap<>()), root);
+
+        for (final String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            List<Node> next = new ArrayList<>();
+            Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (final Node node : active) {
+                if (node.anySegments) {
+                    addWithClosure(next, seen, node);
+                }
+                Node literal = node.literals.get(segment);
+                if (literal != null) {
+                    addWithClosure(next, seen, literal);
+                }
+                for (final Map.Entry<Pattern, Node> wildcard : node.wildcards.entrySet()) {
+                    if (wildcard.getKey().matcher(segment).matches()) {
+                        addWithClosure(next, seen, wildcard.getValue());
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                return new BitSet();
+            }
+            active = next;
+        }
+
+        BitSet result = new BitSet(size);
+        for (final Node node : active) {
+            node.terminals.forEach(result::set);
+        }
+        return result;
+    }
+
+    // a "**" node may match zero segments, so whenever a node is reached so is its "**" child
+    private static void addWithClosure(final List<Node> nodes, final Set<Node> seen, final Node node) {
+        if (seen.add(node)) {
+            nodes.add(node);
+            if (node.anySegmentsChild != null) {
+                addWithClosure(nodes, seen, node.anySegmentsChild);
+            }
+        }
+    }
+
+    private static final class Node {
+        private final boolean anySegments;
+        private final Map<String, Node> literals = new HashMap<>();
+        private final Map<Pattern, Node> wildcards = new HashMap<>();
+        private final List<Integer> terminals = new ArrayList<>(1);
+        private Node anySegmentsChild;
+
+        // wildcard segments are keyed by their source text, Pattern doesn't implement equals
+        private final Map<String, Pattern> compiled = new HashMap<>();
+
+        private Node(final boolean anySegments) {
+            this.anySegments = anySegments;
+        }
+
+        private Node child(final String segment) {
+            if ("**".equals(segment)) {
+                if (anySegmentsChild == null) {
+                    anySegmentsChild = new Node(true);
+                }
+                return anySegmentsChild;
+            }
+            if (segment.indexOf('*') < 0 && segment.indexOf('?') < 0) {
+                return literals.computeIfAbsent(segment, s -> new Node(false));
+            }
+            Pattern pattern = compiled.computeIfAbsent(segment, GlobTrie::toRegex);
+            return wildcards.computeIfAbsent(pattern, p -> new Node(false));
+        }
+    }
+
+    private static Pattern toRegex(final String segment) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (final char c : segment.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
@@ -0,0 +1,83 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over a paged GitHub listing, fetching each page only when iteration reaches it, so that at most one
+ * page is held in memory regardless of the size of the listing.
+ *
+ * Both the iterable and its iterators are serializable so they can be held across CPS checkpoints, the current
+ * page is not persisted and is fetched again after a resume.
+ *
+ * @author Aaron Whiteside
+ */
+abstract class PagedIterable<T> implements Iterable<T>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final int pageSize;
+
+    PagedIterable() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    PagedIterable(final int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * @param page the 1-based page number
+     */
+    protected abstract List<T> fetchPage(int page, int pageSize) throws IOException;
+
+    @Override
+    public Iterator<T> iterator() {
+        return new PagedIterator();
+    }
+
+    private class PagedIterator implements Iterator<T>, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int pageNumber = 1;
+        private int index;
+        private transient List<T> page;
+
+        @Override
+        public boolean hasNext() {
+            if (page == null) {
+                page = load(pageNumber);
+            }
+            while (index >= page.size()) {
+                if (page.size() < pageSize) {
+                    return false;
+                }
+                pageNumber++;
+                index = 0;
+                page = load(pageNumber);
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(index++);
+        }
+
+        private List<T> load(final int number) {
+            try {
+                return fetchPage(number, pageSize);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,18 +1,29 @@
 package org.jenkinsci.plugins.pipeline.github;
 
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
 import org.jenkinsci.plugins.workflow.cps.CpsScript;
 import org.jenkinsci.plugins.workflow.cps.GlobalVariable;
 
 import javax.annotation.Nonnull;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory for our {@link PullRequestGroovyObject} instance.
  *
+ * One instance is created per run and handed out on every access, by every script of the run. Use
+ * {@link PullRequestGroovyObject#refresh()} to re-read the pull request.
+ *
  * @author Aaron Whiteside
  * @see PullRequestGroovyObject
  */
 public class PullRequestGlobalVariable extends GlobalVariable {
 
+    // keyed by Run#getExternalizableId(), removed once the run is finalized
+    private static final Map<String, PullRequestGroovyObject> pullRequests = new ConcurrentHashMap<>();
+
     @Nonnull
     @Override
     public String getName() {
@@ -22,7 +33,29 @@ public class PullRequestGlobalVariable extends GlobalVariable {
     @Nonnull
     @Override
     public Object getValue(@Nonnull final CpsScript script) throws Exception {
-        return new PullRequestGroovyObject(script);
+        Run<?, ?> build = script.$build();
+        if (build == null) {
+            throw new IllegalStateException("No associated build");
+        }
+
+        String key = build.getExternalizableId();
+        PullRequestGroovyObject pullRequest = pullRequests.get(key);
+        if (pullRequest == null) {
+            pullRequest = new PullRequestGroovyObject(build);
+            pullRequests.put(key, pullRequest);
+        }
+        return pullRequest;
+    }
+
+    /**
+     * Drops a run's instance once it has finished.
+     */
+    @Extension
+    public static class SnapshotCleaner extends RunListener<Run<?, ?>> {
+        @Override
+        public void onFinalized(final Run<?, ?> run) {
+            pullRequests.remove(run.getExternalizableId());
+        }
     }
 
 }
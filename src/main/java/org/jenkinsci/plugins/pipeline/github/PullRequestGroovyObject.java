@@ -1,22 +1,28 @@
 package org.jenkinsci.plugins.pipeline.github;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import groovy.lang.GroovyObjectSupport;
 import hudson.model.Job;
 import hudson.model.Run;
+import hudson.util.Secret;
 import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.CommitFile;
 import org.eclipse.egit.github.core.CommitStatus;
 import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.PullRequestMarker;
+import org.eclipse.egit.github.core.RepositoryCommit;
 import org.eclipse.egit.github.core.RepositoryId;
 import org.eclipse.egit.github.core.User;
+import org.eclipse.egit.github.core.client.RequestException;
 import org.jenkinsci.plugins.github_branch_source.PullRequestSCMHead;
+import org.jenkinsci.plugins.pipeline.github.client.CombinedStatusCache;
+import org.jenkinsci.plugins.pipeline.github.client.CommitStatusPublisher;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedCommitComment;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedCommitService;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedGitHubClient;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedIssueService;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedMergeStatus;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedPullRequest;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedPullRequestReview;
 import org.jenkinsci.plugins.pipeline.github.client.ExtendedPullRequestService;
 import org.jenkinsci.plugins.scriptsecurity.sandbox.whitelists.Whitelisted;
 import org.jenkinsci.plugins.workflow.cps.CpsScript;
@@ -27,12 +33,16 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -41,212 +51,295 @@ import static java.util.stream.Collectors.toList;
 /**
  * Groovy object that represents a GitHub PullRequest.
  *
- * TODO: better javadoc
+ * When serialized, e.g. by a CPS checkpoint, only the pull request's identity and any unflushed edits are
+ * written, see {@link SerializedForm}. Clients and services come from the shared registry after a resume, and
+ * the pull request itself is loaded again on first use.
  *
  * @author Aaron Whiteside
  * @see ExtendedPullRequest
  */
 @PersistIn(PersistenceContext.NONE)
-@SuppressFBWarnings("SE_BAD_FIELD")
 public class PullRequestGroovyObject extends GroovyObjectSupport implements Serializable {
+    private static final long serialVersionUID = 1L;
 
-    private final CpsScript script;
+    // the run's externalizable id, rather than the script that first referenced the pull request, as a run's
+    // scripts share one instance, see PullRequestGlobalVariable
+    private final String runId;
 
-    private final PullRequestSCMHead pullRequestHead;
     private final RepositoryId base;
     private final RepositoryId head;
-    private final ExtendedGitHubClient gitHubClient;
+    private final int number;
+    private String headSha;
+    private transient ExtendedGitHubClient gitHubClient;
 
-    private final ExtendedPullRequestService pullRequestService;
-    private final ExtendedIssueService issueService;
-    private final ExtendedCommitService commitService;
+    private transient ExtendedPullRequestService pullRequestService;
+    private transient ExtendedIssueService issueService;
+    private transient ExtendedCommitService commitService;
+
+    // set by setCredentials(), the password is kept encrypted
+    private String credentialsUserName;
+    private String credentialsPassword;
+
+    // loaded on demand, see getPullRequest(), getLabels(), getAssignees() and getRequestedReviewers()
     private ExtendedPullRequest pullRequest;
+    private List<String> labels;
+    private List<String> assignees;
+    private List<String> requestedReviewers;
+
+    // changes recorded between batch() and flush()
+    private PendingEdit pendingEdit;
+    private boolean syncMode;
+
+    // built once per head SHA, see filesMatching() and changedModules()
+    private List<String> changedFileNames;
+    private String changedFileNamesSha;
+    private DiffPositionIndex diffPositionIndex;
+    private String diffPositionIndexSha;
 
     public PullRequestGroovyObject(@Nonnull final CpsScript script) throws Exception {
-        this.script = script;
+        this(getBuild(script));
+    }
+
+    PullRequestGroovyObject(@Nonnull final Run<?, ?> build) throws Exception {
+        Job<?, ?> job = build.getParent();
+        PullRequestSCMHead pullRequestHead = GitHubHelper.getPullRequest(job);
+
+        this.runId = build.getExternalizableId();
+        this.base = GitHubHelper.getRepositoryId(job);
+        this.head = RepositoryId.create(pullRequestHead.getSourceOwner(), pullRequestHead.getSourceRepo());
+        this.number = pullRequestHead.getNumber();
+        this.headSha = GitHubHelper.getPullRequestHeadRevision(build);
+        setGitHubClient(GitHubHelper.getGitHubClient(job));
+    }
+
+    PullRequestGroovyObject(final String runId,
+                            final RepositoryId base,
+                            final RepositoryId head,
+                            final int number,
+                            final String headSha,
+                            final ExtendedGitHubClient gitHubClient) {
+        this.runId = runId;
+        this.base = base;
+        this.head = head;
+        this.number = number;
+        this.headSha = headSha;
+        if (gitHubClient != null) {
+            setGitHubClient(gitHubClient);
+        }
+    }
+
+    private static Run<?, ?> getBuild(final CpsScript script) {
         Run<?, ?> build = script.$build();
         if (build == null) {
             throw new IllegalStateException("No associated build");
         }
-        Job job = build.getParent();
+        return build;
+    }
 
-        this.pullRequestHead = GitHubHelper.getPullRequest(job);
+    private static Run<?, ?> getBuild(final String runId) {
+        Run<?, ?> build = Run.fromExternalizableId(runId);
+        if (build == null) {
+            throw new IllegalStateException("No associated build");
+        }
+        return build;
+    }
 
-        this.base = GitHubHelper.getRepositoryId(job);
-        this.head = RepositoryId.create(pullRequestHead.getSourceOwner(), pullRequestHead.getSourceRepo());
+    private ExtendedPullRequest getPullRequest() {
+        if (pullRequest == null) {
+            // unlike refresh() this keeps whatever else has been loaded, and the head
+            try {
+                setPullRequest(pullRequestService().getPullRequest(base, number));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return pullRequest;
+    }
 
-        this.gitHubClient = GitHubHelper.getGitHubClient(job);
-        this.pullRequestService = new ExtendedPullRequestService(gitHubClient);
-        this.issueService = new ExtendedIssueService(gitHubClient);
-        this.commitService = new ExtendedCommitService(gitHubClient);
-        this.pullRequest = pullRequestService.getPullRequest(base, pullRequestHead.getNumber());
+    private void setPullRequest(final ExtendedPullRequest pullRequest) {
+        this.pullRequest = pullRequest;
+        this.assignees = null;
     }
 
     @Whitelisted
     public long getId() {
-        return pullRequest.getId();
+        return getPullRequest().getId();
     }
 
     @Whitelisted
     public int getNumber() {
-        return pullRequest.getNumber();
+        return number;
     }
 
     @Whitelisted
     public String getDiffUrl() {
-        return pullRequest.getDiffUrl();
+        return getPullRequest().getDiffUrl();
     }
 
     @Whitelisted
     public String getUrl() {
-        return pullRequest.getHtmlUrl();
+        return getPullRequest().getHtmlUrl();
     }
 
     @Whitelisted
     public String getPatchUrl() {
-        return pullRequest.getPatchUrl();
+        return getPullRequest().getPatchUrl();
     }
 
     @Whitelisted
     public String getState() {
-        return pullRequest.getState();
+        return getPullRequest().getState();
     }
 
     @Whitelisted
     public String getIssueUrl() {
-        return pullRequest.getIssueUrl();
+        return getPullRequest().getIssueUrl();
     }
 
     @Whitelisted
     public String getTitle() {
-        return pullRequest.getTitle();
+        return getPullRequest().getTitle();
     }
 
     @Whitelisted
     public String getBody() {
-        return pullRequest.getBody();
+        return getPullRequest().getBody();
     }
 
     @Whitelisted
     public boolean isLocked() {
-        return pullRequest.isLocked();
+        return getPullRequest().isLocked();
     }
 
     @Whitelisted
     public int getMilestone() {
-        return pullRequest.getMilestone().getNumber();
+        return getPullRequest().getMilestone().getNumber();
     }
 
     @Whitelisted
     public String getHead() {
-        return pullRequest.getHead().getSha();
+        // the build's revision, which only refresh() moves on
+        if (headSha == null) {
+            headSha = getPullRequest().getHead().getSha();
+        }
+        return headSha;
     }
 
     @Whitelisted
     public String getHeadRef() {
-        return pullRequest.getHead().getRef();
+        return getPullRequest().getHead().getRef();
     }
 
     @Whitelisted
     public String getBase() {
-        return pullRequest.getBase().getRef();
+        return getPullRequest().getBase().getRef();
     }
 
     @Whitelisted
     public Date getUpdatedAt() {
-        return pullRequest.getUpdatedAt();
+        return getPullRequest().getUpdatedAt();
     }
 
     @Whitelisted
     public Date getCreatedAt() {
-        return pullRequest.getCreatedAt();
+        return getPullRequest().getCreatedAt();
     }
 
     @Whitelisted
     public String getCreatedBy() {
-        return GitHubHelper.userToLogin(pullRequest.getUser());
+        return GitHubHelper.userToLogin(getPullRequest().getUser());
     }
 
     @Whitelisted
     public Date getClosedAt() {
-        return pullRequest.getCreatedAt();
+        return getPullRequest().getCreatedAt();
     }
 
     @Whitelisted
     public String getClosedBy() {
-        return GitHubHelper.userToLogin(pullRequest.getClosedBy());
+        return GitHubHelper.userToLogin(getPullRequest().getClosedBy());
     }
 
     @Whitelisted
     public Date getMergedAt() {
-        return pullRequest.getMergedAt();
+        return getPullRequest().getMergedAt();
     }
 
     @Whitelisted
     public String getMergedBy() {
-        return GitHubHelper.userToLogin(pullRequest.getMergedBy());
+        return GitHubHelper.userToLogin(getPullRequest().getMergedBy());
     }
 
     @Whitelisted
     public int getCommitCount() {
-        return pullRequest.getCommits();
+        return getPullRequest().getCommits();
     }
 
     @Whitelisted
     public int getCommentCount() {
-        return pullRequest.getComments();
+        return getPullRequest().getComments();
     }
 
     @Whitelisted
     public int getDeletions() {
-        return pullRequest.getDeletions();
+        return getPullRequest().getDeletions();
     }
 
     @Whitelisted
     public String getMergeCommitSha() {
-        return pullRequest.getMergeCommitSha();
+        return getPullRequest().getMergeCommitSha();
     }
 
     @Whitelisted
     public boolean isMaintainerCanModify() {
-        return pullRequest.isMaintainerCanModify();
+        return getPullRequest().isMaintainerCanModify();
     }
 
     @Whitelisted
     public int getAdditions() {
-        return pullRequest.getAdditions();
+        return getPullRequest().getAdditions();
     }
 
     @Whitelisted
     public int getChangedFiles() {
-        return pullRequest.getChangedFiles();
+        return getPullRequest().getChangedFiles();
     }
 
     @Whitelisted
     public boolean isMergeable() {
-        return pullRequest.isMergeable();
+        return getPullRequest().isMergeable();
     }
 
     @Whitelisted
     public boolean isMerged() {
-        return pullRequest.isMerged();
+        return getPullRequest().isMerged();
     }
 
     @Whitelisted
     public Iterable<String> getRequestedReviewers() {
-        Stream<String> stream = StreamSupport
-                .stream(pullRequestService.pageRequestedReviewers(base, pullRequest.getNumber())
-                        .spliterator(), false)
-                .flatMap(Collection::stream)
-                .map(User::getLogin);
+        if (requestedReviewers == null) {
+            requestedReviewers = StreamSupport
+                    .stream(pullRequestService().pageRequestedReviewers(base, number)
+                            .spliterator(), false)
+                    .flatMap(Collection::stream)
+                    .map(User::getLogin)
+                    .collect(toList());
+        }
+        return Collections.unmodifiableList(requestedReviewers);
+    }
 
-        return stream::iterator;
+    /**
+     * @return the latest status of each context, rather than every status ever set
+     */
+    @Whitelisted
+    public CombinedStatusGroovyObject getCombinedStatus() {
+        return new CombinedStatusGroovyObject(this, base, getHead());
     }
 
     @Whitelisted
     public List<CommitStatusGroovyObject> getStatuses() {
         try {
-            return commitService.getStatuses(base, pullRequest.getHead().getSha())
+            return commitService().getStatuses(base, getHead())
                     .stream()
                     .map(CommitStatusGroovyObject::new)
                     .collect(toList());
@@ -257,30 +350,41 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
 
     @Whitelisted
     public Iterable<String> getLabels() {
-        Stream<String> stream = StreamSupport
-                .stream(issueService.getLabels(base, pullRequest.getNumber())
-                        .spliterator(), false)
-                .flatMap(Collection::stream)
-                .map(Label::getName);
+        return Collections.unmodifiableList(loadLabels());
+    }
 
-        return stream::iterator;
+    private List<String> loadLabels() {
+        if (labels == null) {
+            labels = StreamSupport
+                    .stream(issueService().getLabels(base, number)
+                            .spliterator(), false)
+                    .flatMap(Collection::stream)
+                    .map(Label::getName)
+                    .collect(toList());
+        }
+        return labels;
     }
 
     @Whitelisted
     public List<String> getAssignees() {
-        return pullRequest.getAssignees()
-                .stream()
-                .map(User::getLogin)
-                .collect(toList());
+        if (assignees == null) {
+            assignees = getPullRequest().getAssignees()
+                    .stream()
+                    .map(User::getLogin)
+                    .collect(toList());
+        }
+        return Collections.unmodifiableList(assignees);
     }
 
     @Whitelisted
     public Iterable<CommitGroovyObject> getCommits() {
         try {
-            Stream<CommitGroovyObject> steam = pullRequestService
-                    .getCommits(base, pullRequestHead.getNumber())
-                    .stream()
-                    .map(c -> new CommitGroovyObject(c, commitService, base));
+            List<RepositoryCommit> commits = pullRequestService().getCommits(base, number);
+            List<String> shas = commits.stream()
+                    .map(RepositoryCommit::getSha)
+                    .collect(toList());
+            Stream<CommitGroovyObject> steam = IntStream.range(0, commits.size())
+                    .mapToObj(i -> new CommitGroovyObject(commits.get(i), this, base, shas, i));
 
             return steam::iterator;
         } catch (final IOException e) {
@@ -291,10 +395,10 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public Iterable<IssueCommentGroovyObject> getComments() {
         try {
-            Stream<IssueCommentGroovyObject> stream = issueService
-                    .getComments(base, pullRequestHead.getNumber())
+            Stream<IssueCommentGroovyObject> stream = issueService()
+                    .getComments(base, number)
                     .stream()
-                    .map(c -> new IssueCommentGroovyObject(c, base, issueService));
+                    .map(c -> new IssueCommentGroovyObject(c, base, issueService()));
 
             return stream::iterator;
         } catch (final IOException e) {
@@ -305,25 +409,149 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public Iterable<ReviewCommentGroovyObject> getReviewComments() {
         Stream<ReviewCommentGroovyObject> stream = StreamSupport
-                .stream(pullRequestService.pageComments2(base,
-                        pullRequestHead.getNumber()).spliterator(), false)
+                .stream(pullRequestService().pageComments2(base,
+                        number).spliterator(), false)
                 .flatMap(Collection::stream)
-                .map(c -> new ReviewCommentGroovyObject(c, base, commitService));
+                .map(c -> new ReviewCommentGroovyObject(c, base, commitService()));
         return stream::iterator;
     }
 
+    /**
+     * Returns the comments created or edited after the cursor, fetching only those new since the last call.
+     *
+     * @param cursor the cursor of a previous result, or null for every comment
+     */
     @Whitelisted
-    public List<CommitFileGroovyObject> getFiles() {
+    public CommentsSinceGroovyObject<IssueCommentGroovyObject> commentsSince(final String cursor) {
+        Run<?, ?> build = getBuild(runId);
         try {
-            return pullRequestService.getFiles(base, pullRequestHead.getNumber())
-                    .stream()
-                    .map(CommitFileGroovyObject::new)
-                    .collect(toList());
+            List<Comment> comments = CommentLog.<Comment>get(build, "issue-" + number)
+                    .since(build, "issue-" + number, since -> issueService().pageComments(base, number, since), cursor);
+            return new CommentsSinceGroovyObject<>(
+                    comments.stream()
+                            .map(c -> new IssueCommentGroovyObject(c, base, issueService()))
+                            .collect(toList()),
+                    CommentLog.cursor(comments, cursor));
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Returns the review comments created or edited after the cursor, fetching only those new since the last call.
+     *
+     * @param cursor the cursor of a previous result, or null for every review comment
+     */
+    @Whitelisted
+    public CommentsSinceGroovyObject<ReviewCommentGroovyObject> reviewCommentsSince(final String cursor) {
+        Run<?, ?> build = getBuild(runId);
+        try {
+            List<ExtendedCommitComment> comments = CommentLog.<ExtendedCommitComment>get(build, "review-" + number)
+                    .since(build, "review-" + number,
+                            since -> pullRequestService().pageComments2(base, number, since), cursor);
+            return new CommentsSinceGroovyObject<>(
+                    comments.stream()
+                            .map(c -> new ReviewCommentGroovyObject(c, base, commitService()))
+                            .collect(toList()),
+                    CommentLog.cursor(comments, cursor));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Whitelisted
+    public Iterable<CommitFileGroovyObject> getFiles() {
+        return getFiles(true);
+    }
+
+    /**
+     * Pages through the changed files as they are iterated, only one page is held in memory at a time.
+     *
+     * @param includePatch false to drop each file's patch text as soon as it is received
+     */
+    @Whitelisted
+    public Iterable<CommitFileGroovyObject> getFiles(final boolean includePatch) {
+        return new FilesIterable(this, includePatch);
+    }
+
+    /**
+     * @return the names of the changed files matching any of the glob patterns
+     * @see GlobTrie
+     */
+    @Whitelisted
+    public List<String> filesMatching(final String... patterns) {
+        return filesMatching(Arrays.asList(patterns));
+    }
+
+    @Whitelisted
+    public List<String> filesMatching(final List<String> patterns) {
+        Objects.requireNonNull(patterns, "patterns is a required argument");
+
+        GlobTrie trie = new GlobTrie();
+        patterns.forEach(trie::add);
+        return getChangedFileNames()
+                .stream()
+                .filter(f -> !trie.match(f).isEmpty())
+                .collect(toList());
+    }
+
+    /**
+     * @param mapping module name to a glob pattern, or list of glob patterns, matching the module's files
+     * @return the names of the modules with at least one changed file, in mapping order
+     * @see GlobTrie
+     */
+    @Whitelisted
+    public List<String> changedModules(final Map<String, Object> mapping) {
+        Objects.requireNonNull(mapping, "mapping is a required argument");
+
+        GlobTrie trie = new GlobTrie();
+        List<String> moduleByPattern = new ArrayList<>();
+        for (final Map.Entry<String, Object> module : mapping.entrySet()) {
+            Object value = module.getValue();
+            Collection<?> modulePatterns = value instanceof Collection
+                    ? (Collection<?>) value
+                    : Collections.singletonList(value);
+            for (final Object pattern : modulePatterns) {
+                trie.add(String.valueOf(pattern));
+                moduleByPattern.add(module.getKey());
+            }
+        }
+
+        BitSet matched = new BitSet(trie.size());
+        for (final String file : getChangedFileNames()) {
+            matched.or(trie.match(file));
+        }
+        return matched.stream()
+                .mapToObj(moduleByPattern::get)
+                .distinct()
+                .collect(toList());
+    }
+
+    private List<String> getChangedFileNames() {
+        String sha = getHead();
+        if (changedFileNames == null || !Objects.equals(changedFileNamesSha, sha)) {
+            List<String> names = new ArrayList<>();
+            for (final CommitFileGroovyObject file : getFiles(false)) {
+                names.add(file.getFilename());
+            }
+            changedFileNames = names;
+            changedFileNamesSha = sha;
+        }
+        return changedFileNames;
+    }
+
+    private List<CommitFileGroovyObject> getFilesPage(final int page,
+                                                      final int size,
+                                                      final boolean includePatch) throws IOException {
+        List<CommitFile> files = pullRequestService().getFilesPage(base, number, page, size);
+        if (!includePatch) {
+            files.forEach(f -> f.setPatch(null));
+        }
+        return files.stream()
+                .map(CommitFileGroovyObject::new)
+                .collect(toList());
+    }
+
     public void setMilestone(final int milestoneNumber) {
         // todo
     }
@@ -332,9 +560,9 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     public void setLocked(final boolean locked) {
         try {
             if (locked) {
-                issueService.lockIssue(base, pullRequest.getNumber());
+                issueService().lockIssue(base, number);
             } else {
-                issueService.unlockIssue(base, pullRequest.getNumber());
+                issueService().unlockIssue(base, number);
             }
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
@@ -346,13 +574,8 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         Objects.requireNonNull(title, "title cannot be null");
 
         ExtendedPullRequest edit = new ExtendedPullRequest();
-        edit.setNumber(pullRequest.getNumber());
         edit.setTitle(title);
-        try {
-            pullRequest = pullRequestService.editPullRequest(base, edit);
-        } catch (final IOException e) {
-            throw new UncheckedIOException(e);
-        }
+        edit(edit);
     }
 
     @Whitelisted
@@ -360,13 +583,8 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         Objects.requireNonNull(body, "body cannot be null");
 
         ExtendedPullRequest edit = new ExtendedPullRequest();
-        edit.setNumber(pullRequest.getNumber());
         edit.setBody(body);
-        try {
-            pullRequest = pullRequestService.editPullRequest(base, edit);
-        } catch (final IOException e) {
-            throw new UncheckedIOException(e);
-        }
+        edit(edit);
     }
 
     @Whitelisted
@@ -374,13 +592,8 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         Objects.requireNonNull(state, "state cannot be null");
 
         ExtendedPullRequest edit = new ExtendedPullRequest();
-        edit.setNumber(pullRequest.getNumber());
         edit.setState(state);
-        try {
-            pullRequest = pullRequestService.editPullRequest(base, edit);
-        } catch (final IOException e) {
-            throw new UncheckedIOException(e);
-        }
+        edit(edit);
     }
 
     @Whitelisted
@@ -388,34 +601,144 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         Objects.requireNonNull(newBase, "base cannot be null");
 
         ExtendedPullRequest edit = new ExtendedPullRequest();
-        edit.setNumber(pullRequest.getNumber());
         edit.setBase(new PullRequestMarker().setRef(newBase));
+        edit(edit);
+    }
+
+    @Whitelisted
+    public void setMaintainerCanModify(final boolean value) {
+        ExtendedPullRequest edit = new ExtendedPullRequest();
+        edit.setMaintainerCanModify(value);
+        edit(edit);
+    }
+
+    /**
+     * Edits several fields with a single request.
+     *
+     * Accepts any of: title, body, state, base and maintainerCanModify.
+     */
+    @Whitelisted
+    public void edit(final Map<String, Object> params) {
+        Objects.requireNonNull(params, "params cannot be null");
+
+        ExtendedPullRequest edit = new ExtendedPullRequest();
+        for (final Map.Entry<String, Object> param : params.entrySet()) {
+            Object value = Objects.requireNonNull(param.getValue(), param.getKey() + " cannot be null");
+            switch (param.getKey()) {
+                case "title":
+                    edit.setTitle(value.toString());
+                    break;
+                case "body":
+                    edit.setBody(value.toString());
+                    break;
+                case "state":
+                    edit.setState(value.toString());
+                    break;
+                case "base":
+                    edit.setBase(new PullRequestMarker().setRef(value.toString()));
+                    break;
+                case "maintainerCanModify":
+                    edit.setMaintainerCanModify(Boolean.valueOf(value.toString()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown pull request field: " + param.getKey());
+            }
+        }
+        edit(edit);
+    }
+
+    private void edit(final ExtendedPullRequest edit) {
+        if (pendingEdit != null) {
+            pendingEdit.merge(edit);
+            return;
+        }
+        edit.setNumber(number);
         try {
-            pullRequest = pullRequestService.editPullRequest(base, edit);
+            setPullRequest(pullRequestService().editPullRequest(base, edit));
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Starts recording changes to the title, body, state, base, maintainerCanModify, labels and assignees
+     * instead of sending them, until {@link #flush()} is called.
+     */
     @Whitelisted
-    public void setMaintainerCanModify(final boolean value) {
-        ExtendedPullRequest edit = new ExtendedPullRequest();
-        edit.setNumber(pullRequest.getNumber());
-        edit.setMaintainerCanModify(value);
+    public void batch() {
+        if (pendingEdit == null) {
+            pendingEdit = new PendingEdit();
+        }
+    }
+
+    /**
+     * Sends the changes recorded since {@link #batch()}: a single PATCH for the pull request fields, and the
+     * fewest label and assignee calls that get from their current values to the recorded ones.
+     */
+    @Whitelisted
+    public void flush() {
+        PendingEdit pending = pendingEdit;
+        if (pending == null) {
+            return;
+        }
+        pendingEdit = null;
+
+        if (pending.hasFieldChanges()) {
+            edit(pending.fields);
+        }
+        if (pending.labels != null) {
+            syncLabels(pending.labels);
+        }
+        if (pending.assignees != null) {
+            syncAssignees(pending.assignees);
+        }
+    }
+
+    private void syncLabels(final Collection<String> desired) {
+        try {
+            this.labels = issueService().synchronizeLabels(base, number, loadLabels(), desired);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void syncAssignees(final Collection<String> desired) {
         try {
-            pullRequest = pullRequestService.editPullRequest(base, edit);
+            this.assignees = issueService().synchronizeAssignees(base, number, getAssignees(), desired);
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * When enabled, label and assignee changes are compared against the current labels and assignees first,
+     * and only the difference is sent, or nothing at all if they already match.
+     */
+    @Whitelisted
+    public void setSyncMode(final boolean syncMode) {
+        this.syncMode = syncMode;
+    }
+
+    @Whitelisted
+    public boolean isSyncMode() {
+        return syncMode;
+    }
+
     @Whitelisted
     public void setLabels(List<String> labels) {
         if (labels == null) {
             labels = Collections.emptyList();
         }
+        if (pendingEdit != null) {
+            pendingEdit.labels = new ArrayList<>(labels);
+            return;
+        }
+        if (syncMode) {
+            syncLabels(labels);
+            return;
+        }
         try {
-            issueService.setLabels(base, pullRequest.getNumber(), labels);
+            this.labels = toLabelNames(issueService().setLabels(base, number, labels));
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -425,7 +748,8 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     public void createReviewRequests(final List<String> reviewers) {
         Objects.requireNonNull(reviewers, "reviewers cannot be null");
         try {
-            pullRequestService.createReviewRequests(base, pullRequest.getNumber(), reviewers);
+            pullRequestService().createReviewRequests(base, number, reviewers);
+            requestedReviewers = null;
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -435,7 +759,10 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     public void deleteReviewRequests(final List<String> reviewers) {
         Objects.requireNonNull(reviewers, "reviewers cannot be null");
         try {
-            pullRequestService.deleteReviewRequests(base, pullRequest.getNumber(), reviewers);
+            pullRequestService().deleteReviewRequests(base, number, reviewers);
+            if (requestedReviewers != null) {
+                requestedReviewers.removeAll(reviewers);
+            }
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -444,8 +771,21 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void addLabels(final List<String> labels) {
         Objects.requireNonNull(labels, "labels is a required argument");
+        if (pendingEdit != null) {
+            pendingEdit.labels = pendingLabels();
+            labels.stream()
+                    .filter(l -> !pendingEdit.labels.contains(l))
+                    .forEach(pendingEdit.labels::add);
+            return;
+        }
+        if (syncMode) {
+            List<String> desired = new ArrayList<>(loadLabels());
+            desired.addAll(labels);
+            syncLabels(desired);
+            return;
+        }
         try {
-            issueService.addLabels(base, pullRequest.getNumber(), labels);
+            this.labels = toLabelNames(issueService().addLabels(base, number, labels));
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -454,8 +794,22 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void removeLabel(final String label) {
         Objects.requireNonNull(label, "label is a required argument");
+        if (pendingEdit != null) {
+            pendingEdit.labels = pendingLabels();
+            pendingEdit.labels.remove(label);
+            return;
+        }
+        if (syncMode) {
+            List<String> desired = new ArrayList<>(loadLabels());
+            desired.remove(label);
+            syncLabels(desired);
+            return;
+        }
         try {
-            issueService.removeLabel(base, pullRequest.getNumber(), label);
+            issueService().removeLabel(base, number, label);
+            if (labels != null) {
+                labels.remove(label);
+            }
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -464,8 +818,26 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void addAssignees(final List<String> assignees) {
         Objects.requireNonNull(assignees, "assignees is a required argument");
+        if (pendingEdit != null) {
+            pendingEdit.assignees = pendingAssignees();
+            assignees.stream()
+                    .filter(a -> !pendingEdit.assignees.contains(a))
+                    .forEach(pendingEdit.assignees::add);
+            return;
+        }
+        if (syncMode) {
+            List<String> desired = new ArrayList<>(getAssignees());
+            desired.addAll(assignees);
+            syncAssignees(desired);
+            return;
+        }
         try {
-            issueService.addAssignees(base, pullRequest.getNumber(), assignees);
+            issueService().addAssignees(base, number, assignees);
+            if (this.assignees != null) {
+                assignees.stream()
+                        .filter(a -> !this.assignees.contains(a))
+                        .forEach(this.assignees::add);
+            }
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -474,8 +846,17 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void setAssignees(final List<String> assignees) {
         Objects.requireNonNull(assignees, "assignees is a required argument");
+        if (pendingEdit != null) {
+            pendingEdit.assignees = new ArrayList<>(assignees);
+            return;
+        }
+        if (syncMode) {
+            syncAssignees(assignees);
+            return;
+        }
         try {
-            issueService.setAssignees(base, pullRequest.getNumber(), assignees);
+            issueService().setAssignees(base, number, assignees);
+            this.assignees = new ArrayList<>(assignees);
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -484,13 +865,41 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void removeAssignees(final List<String> assignees) {
         Objects.requireNonNull(assignees, "assignees is a required argument");
+        if (pendingEdit != null) {
+            pendingEdit.assignees = pendingAssignees();
+            pendingEdit.assignees.removeAll(assignees);
+            return;
+        }
+        if (syncMode) {
+            List<String> desired = new ArrayList<>(getAssignees());
+            desired.removeAll(assignees);
+            syncAssignees(desired);
+            return;
+        }
         try {
-            issueService.removeAssignees(base, pullRequest.getNumber(), assignees);
+            issueService().removeAssignees(base, number, assignees);
+            if (this.assignees != null) {
+                this.assignees.removeAll(assignees);
+            }
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    private List<String> pendingLabels() {
+        if (pendingEdit.labels == null) {
+            return new ArrayList<>(loadLabels());
+        }
+        return pendingEdit.labels;
+    }
+
+    private List<String> pendingAssignees() {
+        if (pendingEdit.assignees == null) {
+            return new ArrayList<>(getAssignees());
+        }
+        return pendingEdit.assignees;
+    }
+
     @Whitelisted
     public CommitStatusGroovyObject createStatus(final Map<String, String> params) {
         return createStatus(params.get("status"),
@@ -512,8 +921,7 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         commitStatus.setDescription(description);
         commitStatus.setTargetUrl(targetUrl);
         try {
-            return new CommitStatusGroovyObject(
-                    commitService.createStatus(head, pullRequest.getHead().getSha(), commitStatus));
+            return new CommitStatusGroovyObject(CommitStatusPublisher.publish(commitService(), head, getHead(), commitStatus));
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -535,22 +943,121 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         comment.setBody(body);
         try {
             return new ReviewCommentGroovyObject(
-                    pullRequestService.createComment2(base, pullRequestHead.getNumber(), comment),
+                    pullRequestService().createComment2(base, number, comment),
                     base,
-                    commitService);
+                    commitService());
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Submits a review with all of its inline comments in as few requests as possible.
+     *
+     * Accepts: event (APPROVE, REQUEST_CHANGES or COMMENT, defaults to COMMENT), body, commitId (defaults to
+     * the head commit) and comments, a list of maps with path, position and body.
+     *
+     * @return the created review comments
+     */
+    @Whitelisted
+    public List<ReviewCommentGroovyObject> review(final Map<String, Object> params) {
+        Objects.requireNonNull(params, "params cannot be null");
+
+        String event = params.containsKey("event") ? String.valueOf(params.get("event")) : "COMMENT";
+        String body = params.containsKey("body") ? String.valueOf(params.get("body")) : null;
+        String commitId = params.containsKey("commitId") ? String.valueOf(params.get("commitId")) : getHead();
+
+        List<ExtendedCommitComment> comments = new ArrayList<>();
+        Object commentParams = params.get("comments");
+        if (commentParams != null) {
+            for (final Object c : (Collection<?>) commentParams) {
+                Map<?, ?> commentParam = (Map<?, ?>) c;
+                ExtendedCommitComment comment = new ExtendedCommitComment();
+                comment.setPath(String.valueOf(
+                        Objects.requireNonNull(commentParam.get("path"), "comment path is a required argument")));
+                if (commentParam.get("position") == null && commentParam.get("line") != null) {
+                    comment.setPosition(requireDiffPosition(comment.getPath(),
+                            ((Number) commentParam.get("line")).intValue()));
+                } else {
+                    comment.setPosition(((Number) Objects.requireNonNull(commentParam.get("position"),
+                            "comment position or line is a required argument")).intValue());
+                }
+                comment.setBody(String.valueOf(
+                        Objects.requireNonNull(commentParam.get("body"), "comment body is a required argument")));
+                comments.add(comment);
+            }
+        }
+
+        try {
+            List<ReviewCommentGroovyObject> result = new ArrayList<>(comments.size());
+            for (final ExtendedPullRequestReview review
+                    : pullRequestService().createReviews(base, number, commitId, body, event, comments)) {
+                if (comments.isEmpty()) {
+                    continue;
+                }
+                StreamSupport.stream(pullRequestService().pageReviewComments(base, number, review.getId())
+                        .spliterator(), false)
+                        .flatMap(Collection::stream)
+                        .map(c -> new ReviewCommentGroovyObject(c, base, commitService()))
+                        .forEach(result::add);
+            }
+            return result;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a review comment on a line of a changed file, against the head commit.
+     *
+     * @param line the 1-based line number in the new version of the file, must be part of the diff
+     */
+    @Whitelisted
+    public ReviewCommentGroovyObject reviewCommentAtLine(final String path, final int line, final String body) {
+        Objects.requireNonNull(path, "path is a required argument");
+        return reviewComment(getHead(), path, requireDiffPosition(path, line), body);
+    }
+
+    /**
+     * @param line the 1-based line number in the new version of the file
+     * @return the line's position in the diff, as used by review comments, or null if it is not part of the diff
+     */
+    @Whitelisted
+    public Integer diffPosition(final String path, final int line) {
+        Objects.requireNonNull(path, "path is a required argument");
+        return getDiffPositionIndex().position(path, line);
+    }
+
+    private int requireDiffPosition(final String path, final int line) {
+        Integer position = diffPosition(path, line);
+        if (position == null) {
+            throw new IllegalArgumentException(
+                    String.format("Line %d of %s is not part of this pull request's diff", line, path));
+        }
+        return position;
+    }
+
+    private DiffPositionIndex getDiffPositionIndex() {
+        String sha = getHead();
+        if (diffPositionIndex == null || !Objects.equals(diffPositionIndexSha, sha)) {
+            DiffPositionIndex index = new DiffPositionIndex();
+            for (final CommitFileGroovyObject file : getFiles(true)) {
+                index.add(file.getFilename(), file.getPatch());
+            }
+            diffPositionIndex = index;
+            diffPositionIndexSha = sha;
+        }
+        return diffPositionIndex;
+    }
+
     @Whitelisted
     public ReviewCommentGroovyObject replyToReviewComment(final long commentId, final String body) {
         Objects.requireNonNull(body, "body is a required argument");
         try {
             return new ReviewCommentGroovyObject(
-                    pullRequestService.replyToComment2(base, pullRequestHead.getNumber(), (int) commentId, body),
+                    pullRequestService().replyToComment2(base, number, (int) commentId, body),
                     base,
-                    commitService);
+                    commitService());
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -559,7 +1066,7 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void deleteReviewComment(final long commentId) {
         try {
-            pullRequestService.deleteComment(base, commentId);
+            pullRequestService().deleteComment(base, commentId);
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -573,7 +1080,7 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         comment.setId(commentId);
         comment.setBody(body);
         try {
-            return new ReviewCommentGroovyObject(pullRequestService.editComment2(base, comment), base, commitService);
+            return new ReviewCommentGroovyObject(pullRequestService().editComment2(base, comment), base, commitService());
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -585,14 +1092,74 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
 
         try {
             return new IssueCommentGroovyObject(
-                    issueService.createComment(base, pullRequestHead.getNumber(), body),
+                    issueService().createComment(base, number, body),
                     base,
-                    issueService);
+                    issueService());
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    /**
+     * Keeps a single comment per marker up to date: the comment last written for the marker is edited,
+     * or a new one added if there is none.
+     *
+     * The marker is embedded in the comment as an invisible html comment. Its comment id is remembered by the
+     * job, the comments are only searched, newest first, when the remembered comment no longer exists.
+     */
+    @Whitelisted
+    public IssueCommentGroovyObject upsertComment(final String marker, final String body) {
+        Objects.requireNonNull(marker, "marker is a required argument");
+        Objects.requireNonNull(body, "body is a required argument");
+        if (marker.contains("--")) {
+            throw new IllegalArgumentException("marker cannot contain '--'");
+        }
+
+        String tag = "<!-- " + marker + " -->";
+        String markedBody = body + "\n\n" + tag;
+        Job<?, ?> job = getBuild(runId).getParent();
+        CommentIdAction action = CommentIdAction.get(job);
+
+        try {
+            Long commentId = action.getCommentId(number, marker);
+            if (commentId != null) {
+                Comment edited = editMarkedComment(commentId, markedBody);
+                if (edited != null) {
+                    return new IssueCommentGroovyObject(edited, base, issueService());
+                }
+            }
+
+            Comment existing = issueService().findLatestComment(base, number,
+                    c -> c.getBody() != null && c.getBody().contains(tag));
+            Comment comment = existing == null
+                    ? issueService().createComment(base, number, markedBody)
+                    : editMarkedComment(existing.getId(), markedBody);
+            if (comment == null) {
+                // deleted between finding and editing it
+                comment = issueService().createComment(base, number, markedBody);
+            }
+            action.setCommentId(job, number, marker, comment.getId());
+            return new IssueCommentGroovyObject(comment, base, issueService());
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // returns null if the comment no longer exists
+    private Comment editMarkedComment(final long commentId, final String body) throws IOException {
+        Comment comment = new Comment();
+        comment.setId(commentId);
+        comment.setBody(body);
+        try {
+            return issueService().editComment(base, comment);
+        } catch (final RequestException e) {
+            if (e.getStatus() == 404) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
     @Whitelisted
     public IssueCommentGroovyObject editComment(final long commentId, final String body) {
         Objects.requireNonNull(body, "body is a required argument");
@@ -602,9 +1169,9 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
         comment.setBody(body);
         try {
             return new IssueCommentGroovyObject(
-                    issueService.editComment(base, comment),
+                    issueService().editComment(base, comment),
                     base,
-                    issueService);
+                    issueService());
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -613,7 +1180,7 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void deleteComment(final long commentId) {
         try {
-            issueService.deleteComment(base, commentId);
+            issueService().deleteComment(base, commentId);
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -633,13 +1200,15 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
                         final String sha,
                         final String mergeMethod) {
         try {
-            ExtendedMergeStatus status = pullRequestService.merge(base,
-                    pullRequestHead.getNumber(),
+            ExtendedMergeStatus status = pullRequestService().merge(base,
+                    number,
                     commitTitle,
                     commitMessage,
                     sha,
                     mergeMethod);
             if (status.isMerged()) {
+                // state, merged, merged by etc. have all changed
+                pullRequest = null;
                 return status.getSha();
             } else {
                 throw new RuntimeException(status.getMessage());
@@ -652,7 +1221,12 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
     @Whitelisted
     public void refresh() {
         try {
-            pullRequest = pullRequestService.getPullRequest(base, pullRequest.getNumber());
+            setPullRequest(pullRequestService().getPullRequest(base, number));
+            headSha = pullRequest.getHead().getSha();
+            labels = null;
+            requestedReviewers = null;
+            // whoever asks for a refresh expects the head's statuses to be current too
+            CombinedStatusCache.invalidate(headSha);
         } catch (final IOException e) {
             throw new UncheckedIOException(e);
         }
@@ -660,6 +1234,159 @@ public class PullRequestGroovyObject extends GroovyObjectSupport implements Seri
 
     @Whitelisted
     public void setCredentials(final String userName, final String password) {
-        gitHubClient.setCredentials(userName, password);
+        // clients are shared, so switch to the one for these credentials rather than reconfigure ours
+        setGitHubClient(GitHubHelper.getGitHubClient(getBuild(runId).getParent(), userName, password));
+        this.credentialsUserName = userName;
+        this.credentialsPassword = Secret.fromString(password).getEncryptedValue();
+    }
+
+    private static List<String> toLabelNames(final List<Label> labels) {
+        return labels.stream()
+                .map(Label::getName)
+                .collect(toList());
+    }
+
+    private void setGitHubClient(final ExtendedGitHubClient gitHubClient) {
+        this.gitHubClient = gitHubClient;
+        this.pullRequestService = new ExtendedPullRequestService(gitHubClient);
+        this.issueService = new ExtendedIssueService(gitHubClient);
+        this.commitService = new ExtendedCommitService(gitHubClient);
+    }
+
+    /**
+     * A deserialized instance has no client until it is first used, resolving the build's job and credentials
+     * is left out of the CPS program's deserialization.
+     */
+    private synchronized void ensureGitHubClient() {
+        if (pullRequestService != null) {
+            return;
+        }
+        ExtendedGitHubClient client = gitHubClient;
+        if (client == null) {
+            Job<?, ?> job = getBuild(runId).getParent();
+            client = credentialsUserName == null
+                    ? GitHubHelper.getGitHubClient(job)
+                    : GitHubHelper.getGitHubClient(job, credentialsUserName,
+                            Secret.fromString(credentialsPassword).getPlainText());
+        }
+        setGitHubClient(client);
+    }
+
+    private ExtendedPullRequestService pullRequestService() {
+        ensureGitHubClient();
+        return pullRequestService;
+    }
+
+    private ExtendedIssueService issueService() {
+        ensureGitHubClient();
+        return issueService;
+    }
+
+    private ExtendedCommitService commitService() {
+        ensureGitHubClient();
+        return commitService;
+    }
+
+    ExtendedCommitService getCommitService() {
+        return commitService();
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(this);
+    }
+
+    /**
+     * What a {@link PullRequestGroovyObject} is serialized as: its identity, settings and unflushed edits.
+     *
+     */
+    static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String runId;
+        private final RepositoryId base;
+        private final RepositoryId head;
+        private final int number;
+        private final String headSha;
+        private final String credentialsUserName;
+        private final String credentialsPassword;
+        private final PendingEdit pendingEdit;
+        private final boolean syncMode;
+
+        private SerializedForm(final PullRequestGroovyObject pullRequest) {
+            this.runId = pullRequest.runId;
+            this.base = pullRequest.base;
+            this.head = pullRequest.head;
+            this.number = pullRequest.number;
+            this.headSha = pullRequest.headSha;
+            this.credentialsUserName = pullRequest.credentialsUserName;
+            this.credentialsPassword = pullRequest.credentialsPassword;
+            this.pendingEdit = pullRequest.pendingEdit;
+            this.syncMode = pullRequest.syncMode;
+        }
+
+        private Object readResolve() {
+            // the client is resolved on first use, see ensureGitHubClient()
+            PullRequestGroovyObject pullRequest =
+                    new PullRequestGroovyObject(runId, base, head, number, headSha, null);
+            pullRequest.credentialsUserName = credentialsUserName;
+            pullRequest.credentialsPassword = credentialsPassword;
+            pullRequest.pendingEdit = pendingEdit;
+            pullRequest.syncMode = syncMode;
+            return pullRequest;
+        }
+    }
+
+    /**
+     * Changes recorded by {@link #batch()}, labels and assignees hold the desired values or null if untouched.
+     */
+    private static final class PendingEdit implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final ExtendedPullRequest fields = new ExtendedPullRequest();
+        private List<String> labels;
+        private List<String> assignees;
+
+        private void merge(final ExtendedPullRequest edit) {
+            if (edit.getTitle() != null) {
+                fields.setTitle(edit.getTitle());
+            }
+            if (edit.getBody() != null) {
+                fields.setBody(edit.getBody());
+            }
+            if (edit.getState() != null) {
+                fields.setState(edit.getState());
+            }
+            if (edit.getBase() != null) {
+                fields.setBase(edit.getBase());
+            }
+            if (edit.isMaintainerCanModify() != null) {
+                fields.setMaintainerCanModify(edit.isMaintainerCanModify());
+            }
+        }
+
+        private boolean hasFieldChanges() {
+            return fields.getTitle() != null
+                    || fields.getBody() != null
+                    || fields.getState() != null
+                    || fields.getBase() != null
+                    || fields.isMaintainerCanModify() != null;
+        }
+    }
+
+    private static final class FilesIterable extends PagedIterable<CommitFileGroovyObject> {
+        private static final long serialVersionUID = 1L;
+
+        private final PullRequestGroovyObject pullRequest;
+        private final boolean includePatch;
+
+        private FilesIterable(final PullRequestGroovyObject pullRequest, final boolean includePatch) {
+            this.pullRequest = pullRequest;
+            this.includePatch = includePatch;
+        }
+
+        @Override
+        protected List<CommitFileGroovyObject> fetchPage(final int page, final int pageSize) throws IOException {
+            return pullRequest.getFilesPage(page, pageSize, includePatch);
+        }
     }
 }
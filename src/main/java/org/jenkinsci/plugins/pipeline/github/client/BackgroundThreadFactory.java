@@ -0,0 +1,43 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the daemon threads of the plugin's background pools.
+ *
+ * Requests sent from these threads may be held back for rate limit budget for as long as it takes, whereas
+ * those sent from anywhere else, a pipeline's CPS VM thread or a webhook handler, only wait briefly. See
+ * {@link RequestScheduler}.
+ *
+ * @author Aaron Whiteside
+ */
+public final class BackgroundThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * @param name the threads' name, numbered as they are created
+     */
+    public BackgroundThreadFactory(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        Thread thread = new BackgroundThread(runnable, name + ' ' + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    static boolean isBackgroundThread() {
+        return Thread.currentThread() instanceof BackgroundThread;
+    }
+
+    private static final class BackgroundThread extends Thread {
+        private BackgroundThread(final Runnable runnable, final String name) {
+            super(runnable, name);
+        }
+    }
+}
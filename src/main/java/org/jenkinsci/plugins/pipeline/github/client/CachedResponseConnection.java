@@ -0,0 +1,67 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Stands in for the connection of a response that was served from the {@link ConditionalRequestCache}.
+ *
+ * {@link org.eclipse.egit.github.core.client.GitHubResponse} reads its paging links from the connection's
+ * headers, a 304 response is not guaranteed to carry them so we replay the cached ones instead.
+ *
+ * @author Aaron Whiteside
+ */
+class CachedResponseConnection extends HttpURLConnection {
+
+    private static final String HEADER_LINK = "Link";
+
+    private final ConditionalRequestCache.Entry entry;
+
+    CachedResponseConnection(final URL url, final ConditionalRequestCache.Entry entry) {
+        super(url);
+        this.entry = entry;
+        this.responseCode = HTTP_OK;
+        this.connected = true;
+    }
+
+    @Override
+    public String getHeaderField(final String name) {
+        if (HEADER_LINK.equalsIgnoreCase(name)) {
+            return entry.getLink();
+        }
+        if ("ETag".equalsIgnoreCase(name)) {
+            return entry.getEtag();
+        }
+        if ("Last-Modified".equalsIgnoreCase(name)) {
+            return entry.getLastModified();
+        }
+        return null;
+    }
+
+    @Override
+    public int getResponseCode() {
+        return HTTP_OK;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(entry.getBody());
+    }
+
+    @Override
+    public void connect() {
+        // already "connected"
+    }
+
+    @Override
+    public void disconnect() {
+        // nothing to release
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.io.Serializable;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class CheckRunAnnotation implements Serializable {
+    private static final long serialVersionUID = -5394436210657613309L;
+
+    public static final String NOTICE = "notice";
+    public static final String WARNING = "warning";
+    public static final String FAILURE = "failure";
+
+    private String path;
+    private int startLine;
+    private int endLine;
+    private String annotationLevel;
+    private String message;
+    private String title;
+
+    public String getPath() {
+        return path;
+    }
+
+    public CheckRunAnnotation setPath(final String path) {
+        this.path = path;
+        return this;
+    }
+
+    public int getStartLine() {
+        return startLine;
+    }
+
+    public CheckRunAnnotation setStartLine(final int startLine) {
+        this.startLine = startLine;
+        return this;
+    }
+
+    public int getEndLine() {
+        return endLine;
+    }
+
+    public CheckRunAnnotation setEndLine(final int endLine) {
+        this.endLine = endLine;
+        return this;
+    }
+
+    public String getAnnotationLevel() {
+        return annotationLevel;
+    }
+
+    public CheckRunAnnotation setAnnotationLevel(final String annotationLevel) {
+        this.annotationLevel = annotationLevel;
+        return this;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public CheckRunAnnotation setMessage(final String message) {
+        this.message = message;
+        return this;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public CheckRunAnnotation setTitle(final String title) {
+        this.title = title;
+        return this;
+    }
+}
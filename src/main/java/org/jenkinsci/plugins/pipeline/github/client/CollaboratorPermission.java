@@ -0,0 +1,44 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.util.Locale;
+
+/**
+ * Permission levels a user can have on a repository, lowest first.
+ *
+ * @author Aaron Whiteside
+ */
+public enum CollaboratorPermission {
+    NONE,
+    READ,
+    TRIAGE,
+    WRITE,
+    MAINTAIN,
+    ADMIN;
+
+    public boolean isAtLeast(final CollaboratorPermission minimum) {
+        return compareTo(minimum) >= 0;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name isn't one of the levels, case insensitively
+     */
+    public static CollaboratorPermission of(final String name) {
+        return valueOf(name.toUpperCase(Locale.ENGLISH));
+    }
+
+    /**
+     * The role name is more precise, but older GitHub Enterprise servers only return the permission.
+     */
+    static CollaboratorPermission of(final ExtendedRepositoryPermission permission) {
+        for (final String name : new String[]{permission.getRoleName(), permission.getPermission()}) {
+            if (name != null) {
+                try {
+                    return of(name);
+                } catch (final IllegalArgumentException e) {
+                    // a custom role, fall back to the base permission
+                }
+            }
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,140 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controller wide cache of users' permissions on repositories, so that authorizing a comment costs at most one
+ * request for the commenter rather than listing every collaborator.
+ *
+ * Entries expire after a while, users without any permission sooner than the others, and are dropped as soon as
+ * a member or membership webhook event reports a change to the user's access.
+ *
+ * @author Aaron Whiteside
+ */
+public final class CollaboratorPermissionCache {
+
+    private static final String PREFIX = CollaboratorPermissionCache.class.getName();
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong(PREFIX + ".ttlSeconds", 600L));
+
+    private static final long NEGATIVE_TTL_NANOS = TimeUnit.SECONDS.toNanos(
+            Long.getLong(PREFIX + ".negativeTtlSeconds", 60L));
+
+    private static final int MAX_REPOSITORIES = Integer.getInteger(PREFIX + ".maxRepositories", 1000);
+
+    private static final int MAX_USERS = Integer.getInteger(PREFIX + ".maxUsersPerRepository", 500);
+
+    // repository -> user -> permission, both lower case as GitHub ignores their case
+    private static final Map<String, Map<String, Entry>> repositories =
+            new LinkedHashMap<String, Map<String, Entry>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Map<String, Entry>> eldest) {
+                    return size() > MAX_REPOSITORIES;
+                }
+            };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private CollaboratorPermissionCache() {
+        // go away
+    }
+
+    public static CollaboratorPermission getPermission(final ExtendedCollaboratorService collaboratorService,
+                                                       final IRepositoryIdProvider repository,
+                                                       final String user) throws IOException {
+        String repositoryKey = repository.generateId().toLowerCase(Locale.ENGLISH);
+        String userKey = user.toLowerCase(Locale.ENGLISH);
+
+        Map<String, Entry> users;
+        synchronized (repositories) {
+            users = repositories.computeIfAbsent(repositoryKey, k -> newUsers());
+            Entry cached = users.get(userKey);
+            if (cached != null && System.nanoTime() - cached.expiresAt < 0) {
+                hits.incrementAndGet();
+                return cached.permission;
+            }
+        }
+
+        misses.incrementAndGet();
+        CollaboratorPermission permission = collaboratorService.getPermission(repository, user);
+        long ttl = permission == CollaboratorPermission.NONE ? NEGATIVE_TTL_NANOS : TTL_NANOS;
+        synchronized (repositories) {
+            // don't resurrect a repository invalidated while this was being fetched
+            if (repositories.get(repositoryKey) == users) {
+                users.put(userKey, new Entry(permission, System.nanoTime() + ttl));
+            }
+        }
+        return permission;
+    }
+
+    /**
+     * Forgets the user's permission on the repository.
+     *
+     * @param repository owner/name
+     */
+    public static void invalidate(final String repository, final String user) {
+        String userKey = user.toLowerCase(Locale.ENGLISH);
+        synchronized (repositories) {
+            Map<String, Entry> users = repositories.get(repository.toLowerCase(Locale.ENGLISH));
+            if (users != null && users.remove(userKey) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Forgets the user's permissions on every repository of the owner, as organization memberships can grant
+     * access to any of them.
+     */
+    public static void invalidateOwner(final String owner, final String user) {
+        String prefix = owner.toLowerCase(Locale.ENGLISH) + '/';
+        String userKey = user.toLowerCase(Locale.ENGLISH);
+        synchronized (repositories) {
+            for (final Map.Entry<String, Map<String, Entry>> entry : repositories.entrySet()) {
+                if (entry.getKey().startsWith(prefix) && entry.getValue().remove(userKey) != null) {
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    private static Map<String, Entry> newUsers() {
+        return new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > MAX_USERS;
+            }
+        };
+    }
+
+    private static final class Entry {
+        private final CollaboratorPermission permission;
+        private final long expiresAt;
+
+        private Entry(final CollaboratorPermission permission, final long expiresAt) {
+            this.permission = permission;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controller wide cache of combined status pages, keyed by SHA, then by credentials, repository and page, so a
+ * page fetched with one set of credentials is never served to a client using another.
+ *
+ * Entries are dropped when a status is published for the SHA, either by {@link CommitStatusPublisher} or as
+ * reported by a status webhook event, and otherwise expire after a short while, as statuses may be published
+ * without either noticing, by hosts whose webhooks aren't delivered to this controller for instance.
+ *
+ * @author Aaron Whiteside
+ */
+public final class CombinedStatusCache {
+
+    private static final String PREFIX = CombinedStatusCache.class.getName();
+
+    private static final int MAX_SHAS = Integer.getInteger(PREFIX + ".maxShas", 1000);
+
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(Long.getLong(PREFIX + ".ttlSeconds", 30L));
+
+    // sha -> credentials + repository + page + page size -> page
+    private static final Map<String, Map<String, Entry>> pages =
+            new LinkedHashMap<String, Map<String, Entry>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Map<String, Entry>> eldest) {
+                    return size() > MAX_SHAS;
+                }
+            };
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong invalidations = new AtomicLong();
+
+    private CombinedStatusCache() {
+        // go away
+    }
+
+    /**
+     * @param page the 1-based page number
+     */
+    public static ExtendedCombinedStatus getPage(final ExtendedCommitService commitService,
+                                                 final IRepositoryIdProvider repository,
+                                                 final String sha,
+                                                 final int page,
+                                                 final int size) throws IOException {
+        String key = commitService.getClient().getCredentialKey() + '\n' + repository.generateId()
+                + '\n' + page + '\n' + size;
+        Map<String, Entry> shaPages;
+        synchronized (pages) {
+            shaPages = pages.computeIfAbsent(sha, k -> new ConcurrentHashMap<>());
+        }
+
+        Entry cached = shaPages.get(key);
+        if (cached != null && System.nanoTime() - cached.fetchedAt < TTL_NANOS) {
+            hits.incrementAndGet();
+            return cached.status;
+        }
+        misses.incrementAndGet();
+        long fetchedAt = System.nanoTime();
+        ExtendedCombinedStatus status = commitService.getCombinedStatus(repository, sha, page, size);
+        // don't resurrect pages invalidated while this one was being fetched
+        synchronized (pages) {
+            if (pages.get(sha) == shaPages) {
+                shaPages.put(key, new Entry(status, fetchedAt));
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Forgets every page of the SHA's combined status, in every repository.
+     */
+    public static void invalidate(final String sha) {
+        synchronized (pages) {
+            if (pages.remove(sha) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getMissCount() {
+        return misses.get();
+    }
+
+    public static long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    private static final class Entry {
+        private final ExtendedCombinedStatus status;
+        private final long fetchedAt;
+
+        private Entry(final ExtendedCombinedStatus status, final long fetchedAt) {
+            this.status = status;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.CommitFile;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.RepositoryCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the stats and files of commits, without their patches.
+ *
+ * Listings such as a pull request's commits leave out each commit's stats and files. The first time one
+ * commit's are needed they are fetched on the calling thread, and those of the commits listed after it are
+ * prefetched in the background. A commit's content never changes, so these are cached by credentials and SHA,
+ * patches stripped, for as long as the cache has room; the cache is bounded by an estimate of its size in bytes
+ * rather than by its number of commits, as one commit may touch thousands of files. Every caller gets its own
+ * copy of a cached commit.
+ *
+ * @author Aaron Whiteside
+ */
+public final class CommitDetailsLoader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommitDetailsLoader.class);
+
+    private static final String PREFIX = CommitDetailsLoader.class.getName();
+
+    private static final int BATCH_SIZE = Integer.getInteger(PREFIX + ".batchSize", 50);
+
+    private static final long MAX_BYTES = Long.getLong(PREFIX + ".maxBytes", 16L * 1024 * 1024);
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Integer.getInteger(PREFIX + ".parallelism", 4),
+            new BackgroundThreadFactory("GitHub commit details loader"));
+
+    // credentials + repository + sha -> commit, guarded by itself along with bytes and prefetching
+    private static final LinkedHashMap<String, Entry> commits = new LinkedHashMap<>(16, 0.75f, true);
+    private static long bytes;
+    private static final Set<String> prefetching = new HashSet<>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong fetches = new AtomicLong();
+
+    private CommitDetailsLoader() {
+        // go away
+    }
+
+    /**
+     * Returns the details of {@code shas.get(index)}, fetching them if they aren't cached, and starts
+     * prefetching those of the next commits in {@code shas} that aren't cached yet.
+     *
+     * @return the commit with its stats and files, the files' patches are left out
+     */
+    public static RepositoryCommit load(final ExtendedCommitService commitService,
+                                        final IRepositoryIdProvider repository,
+                                        final List<String> shas,
+                                        final int index) throws IOException {
+        // what one set of credentials could read is never handed to another
+        String scope = commitService.getClient().getCredentialKey() + '\n' + repository.generateId();
+        String sha = shas.get(index);
+
+        RepositoryCommit cached = get(scope, sha);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return copy(cached);
+        }
+
+        RepositoryCommit commit = fetch(commitService, repository, scope, sha);
+        prefetch(commitService, repository, scope, shas.subList(index + 1, shas.size()));
+        return copy(commit);
+    }
+
+    private static RepositoryCommit fetch(final ExtendedCommitService commitService,
+                                          final IRepositoryIdProvider repository,
+                                          final String scope,
+                                          final String sha) throws IOException {
+        RepositoryCommit commit = stripPatches(commitService.getCommit(repository, sha));
+        fetches.incrementAndGet();
+        put(scope + '\n' + sha, commit);
+        return commit;
+    }
+
+    private static void prefetch(final ExtendedCommitService commitService,
+                                 final IRepositoryIdProvider repository,
+                                 final String scope,
+                                 final List<String> shas) {
+        int queued = 0;
+        for (final String sha : shas) {
+            if (queued >= BATCH_SIZE) {
+                break;
+            }
+            String key = scope + '\n' + sha;
+            synchronized (commits) {
+                if (commits.containsKey(key) || !prefetching.add(key)) {
+                    continue;
+                }
+            }
+            queued++;
+            try {
+                executor.execute(() -> {
+                    try {
+                        if (get(scope, sha) == null) {
+                            fetch(commitService, repository, scope, sha);
+                        }
+                    } catch (final IOException | RuntimeException e) {
+                        // it'll be fetched when it's asked for
+                        LOG.debug("Unable to prefetch commit {} of {}", sha, repository.generateId(), e);
+                    } finally {
+                        synchronized (commits) {
+                            prefetching.remove(key);
+                        }
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                synchronized (commits) {
+                    prefetching.remove(key);
+                }
+                return;
+            }
+        }
+    }
+
+    private static RepositoryCommit get(final String scope, final String sha) {
+        synchronized (commits) {
+            Entry entry = commits.get(scope + '\n' + sha);
+            return entry == null ? null : entry.commit;
+        }
+    }
+
+    private static void put(final String key, final RepositoryCommit commit) {
+        Entry entry = new Entry(commit, key.length() * 2L + estimateBytes(commit));
+        synchronized (commits) {
+            Entry replaced = commits.put(key, entry);
+            if (replaced != null) {
+                bytes -= replaced.bytes;
+            }
+            bytes += entry.bytes;
+            Iterator<Entry> eldest = commits.values().iterator();
+            while (bytes > MAX_BYTES && eldest.hasNext()) {
+                bytes -= eldest.next().bytes;
+                eldest.remove();
+            }
+        }
+    }
+
+    // cached commits are shared by every build, each caller gets its own commit and files
+    private static RepositoryCommit copy(final RepositoryCommit commit) {
+        RepositoryCommit copy = new RepositoryCommit();
+        copy.setSha(commit.getSha());
+        copy.setUrl(commit.getUrl());
+        copy.setCommit(commit.getCommit());
+        copy.setAuthor(commit.getAuthor());
+        copy.setCommitter(commit.getCommitter());
+        copy.setParents(commit.getParents() == null ? null : new ArrayList<>(commit.getParents()));
+        copy.setStats(commit.getStats());
+        if (commit.getFiles() != null) {
+            List<CommitFile> files = new ArrayList<>(commit.getFiles().size());
+            for (final CommitFile file : commit.getFiles()) {
+                files.add(new CommitFile()
+                        .setFilename(file.getFilename())
+                        .setStatus(file.getStatus())
+                        .setSha(file.getSha())
+                        .setAdditions(file.getAdditions())
+                        .setDeletions(file.getDeletions())
+                        .setChanges(file.getChanges())
+                        .setBlobUrl(file.getBlobUrl())
+                        .setRawUrl(file.getRawUrl()));
+            }
+            copy.setFiles(files);
+        }
+        return copy;
+    }
+
+    private static RepositoryCommit stripPatches(final RepositoryCommit commit) {
+        if (commit.getFiles() != null) {
+            for (final CommitFile file : commit.getFiles()) {
+                file.setPatch(null);
+            }
+        }
+        return commit;
+    }
+
+    // the strings a commit holds dominate its size, two bytes per char plus a rough allowance for each object
+    private static long estimateBytes(final RepositoryCommit commit) {
+        long size = 256 + length(commit.getSha()) * 2L + length(commit.getUrl()) * 2L;
+        if (commit.getCommit() != null) {
+            size += length(commit.getCommit().getMessage()) * 2L;
+        }
+        if (commit.getFiles() != null) {
+            for (final CommitFile file : commit.getFiles()) {
+                size += 96 + (length(file.getFilename()) + length(file.getBlobUrl()) + length(file.getRawUrl())
+                        + length(file.getSha()) + length(file.getStatus())) * 2L;
+            }
+        }
+        return size;
+    }
+
+    private static int length(final String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public static long getHitCount() {
+        return hits.get();
+    }
+
+    public static long getFetchCount() {
+        return fetches.get();
+    }
+
+    /**
+     * @return the estimated size in bytes of the cached commits
+     */
+    public static long getCachedBytes() {
+        synchronized (commits) {
+            return bytes;
+        }
+    }
+
+    private static final class Entry {
+        private final RepositoryCommit commit;
+        private final long bytes;
+
+        private Entry(final RepositoryCommit commit, final long bytes) {
+            this.commit = commit;
+            this.bytes = bytes;
+        }
+    }
+}
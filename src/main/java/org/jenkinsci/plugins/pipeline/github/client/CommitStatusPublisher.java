@@ -0,0 +1,198 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.CommitStatus;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes commit statuses, one slot per API host, credentials, repository, SHA and context.
+ *
+ * A status identical (state, description and target url) to the last one requested for its slot, whether it
+ * has been published or is still being sent, is not sent again, the caller gets that status' response. Sends
+ * for the same slot never overlap, and a status waiting for the slot's send in progress is replaced by any
+ * newer one, so when parallel branches update one context the last status requested is the one GitHub ends
+ * up with. The caller of a replaced status gets the response of the status that replaced it.
+ *
+ * Statuses are sent on the calling thread, failures are thrown to the caller.
+ *
+ * @author Aaron Whiteside
+ */
+public final class CommitStatusPublisher {
+
+    private static final String PREFIX = CommitStatusPublisher.class.getName();
+
+    // bounds the memory of what was last requested, a forgotten slot merely loses its suppression
+    private static final int MAX_SLOTS = Integer.getInteger(PREFIX + ".maxSlots", 10_000);
+
+    private static final Map<String, Slot> slots = new LinkedHashMap<String, Slot>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Slot> eldest) {
+            return size() > MAX_SLOTS;
+        }
+    };
+
+    private static final AtomicLong published = new AtomicLong();
+    private static final AtomicLong suppressed = new AtomicLong();
+    private static final AtomicLong coalesced = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+
+    private CommitStatusPublisher() {
+        // go away
+    }
+
+    /**
+     * Publishes a status, waiting for GitHub's response.
+     *
+     * @return the status GitHub created, or the one already requested if identical
+     */
+    public static CommitStatus publish(final ExtendedCommitService commitService,
+                                       final IRepositoryIdProvider repository,
+                                       final String sha,
+                                       final CommitStatus status) throws IOException {
+        Objects.requireNonNull(sha, "sha cannot be null");
+        Objects.requireNonNull(status, "status cannot be null");
+
+        // the same repository name on another host, or seen by other credentials, is another slot
+        ExtendedGitHubClient client = commitService.getClient();
+        String key = client.getApiUri() + '\n' + client.getCredentialKey() + '\n' + repository.generateId()
+                + '\n' + sha + '\n' + status.getContext();
+        Slot slot;
+        synchronized (slots) {
+            slot = slots.computeIfAbsent(key, k -> new Slot());
+        }
+
+        Request request;
+        boolean send;
+        synchronized (slot) {
+            Request latest = slot.latest;
+            if (latest != null && !latest.isFailed() && sameAs(latest.status, status)) {
+                suppressed.incrementAndGet();
+                request = latest;
+                send = false;
+            } else {
+                request = new Request(status);
+                if (latest != null && !latest.started) {
+                    // still waiting for the slot, its sender will find it replaced and leave it to this one
+                    latest.replaceWith(request);
+                    coalesced.incrementAndGet();
+                }
+                slot.latest = request;
+                send = true;
+            }
+        }
+        if (send) {
+            send(slot, request, commitService, repository, sha);
+        }
+        return await(request);
+    }
+
+    private static void send(final Slot slot,
+                             final Request request,
+                             final ExtendedCommitService commitService,
+                             final IRepositoryIdProvider repository,
+                             final String sha) {
+        synchronized (slot.sendLock) {
+            synchronized (slot) {
+                if (request.replaced) {
+                    return;
+                }
+                request.started = true;
+            }
+            try {
+                CommitStatus created = commitService.createStatus(repository, sha, request.status);
+                published.incrementAndGet();
+                CombinedStatusCache.invalidate(sha);
+                request.result.complete(created);
+            } catch (final IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                request.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static CommitStatus await(final Request request) throws IOException {
+        try {
+            return request.result.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a commit status to be published");
+        } catch (final ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static boolean sameAs(final CommitStatus requested, final CommitStatus status) {
+        return Objects.equals(requested.getState(), status.getState())
+                && Objects.equals(requested.getDescription(), status.getDescription())
+                && Objects.equals(requested.getTargetUrl(), status.getTargetUrl());
+    }
+
+    public static long getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * @return the number of statuses not sent because they matched the last one requested
+     */
+    public static long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    /**
+     * @return the number of statuses replaced by a newer one before they were sent
+     */
+    public static long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public static long getFailedCount() {
+        return failed.get();
+    }
+
+    private static final class Slot {
+        private final Object sendLock = new Object();
+        // the last status requested, sent, being sent or waiting to be
+        private Request latest;
+    }
+
+    private static final class Request {
+        private final CommitStatus status;
+        private final CompletableFuture<CommitStatus> result = new CompletableFuture<>();
+        private boolean started;
+        private boolean replaced;
+
+        private Request(final CommitStatus status) {
+            this.status = status;
+        }
+
+        private void replaceWith(final Request newer) {
+            replaced = true;
+            newer.result.whenComplete((created, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(created);
+                }
+            });
+        }
+
+        private boolean isFailed() {
+            return result.isCompletedExceptionally();
+        }
+    }
+}
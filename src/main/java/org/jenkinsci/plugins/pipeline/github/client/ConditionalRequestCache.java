@@ -0,0 +1,140 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded, least recently used cache of GET response bodies, keyed by request uri and credential.
+ *
+ * Used by {@link ExtendedGitHubClient} to issue conditional requests (If-None-Match / If-Modified-Since),
+ * GitHub does not count 304 Not Modified responses against the rate limit.
+ *
+ * @author Aaron Whiteside
+ * @see ExtendedGitHubClient#get(org.eclipse.egit.github.core.client.GitHubRequest)
+ */
+public class ConditionalRequestCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ConditionalRequestCache(final long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes cannot be negative");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Entry get(final String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(final String key, final Entry entry) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            currentBytes -= previous.size();
+        }
+        if (entry.size() > maxBytes) {
+            // would evict everything else and still not fit
+            return;
+        }
+        entries.put(key, entry);
+        currentBytes += entry.size();
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && it.hasNext()) {
+            currentBytes -= it.next().getValue().size();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getSize() {
+        return currentBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConditionalRequestCache{entries=%d, size=%d/%d, hits=%d, misses=%d, evictions=%d}",
+                getEntryCount(), getSize(), maxBytes, getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    /**
+     * A cached response, the validators needed to revalidate it and the headers needed to rebuild it.
+     */
+    static final class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final String link;
+        private final byte[] body;
+
+        Entry(final String etag, final String lastModified, final String link, final byte[] body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.link = link;
+            this.body = body;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+        String getLink() {
+            return link;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+
+        long size() {
+            return body.length
+                    + (etag == null ? 0 : etag.length())
+                    + (lastModified == null ? 0 : lastModified.length())
+                    + (link == null ? 0 : link.length());
+        }
+    }
+}
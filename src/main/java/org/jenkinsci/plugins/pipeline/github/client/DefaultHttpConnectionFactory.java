@@ -0,0 +1,23 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import hudson.ProxyConfiguration;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * The legacy transport, a new {@link java.net.URLConnection} per request, opened through Jenkins' proxy
+ * configuration.
+ *
+ * @author Aaron Whiteside
+ */
+public class DefaultHttpConnectionFactory implements HttpConnectionFactory {
+
+    public static final DefaultHttpConnectionFactory INSTANCE = new DefaultHttpConnectionFactory();
+
+    @Override
+    public HttpURLConnection create(final URL url) throws IOException {
+        return (HttpURLConnection) ProxyConfiguration.open(url);
+    }
+}
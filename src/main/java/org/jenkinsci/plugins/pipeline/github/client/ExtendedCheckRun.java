@@ -0,0 +1,102 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class ExtendedCheckRun implements Serializable {
+    private static final long serialVersionUID = 3126592843378950246L;
+
+    private long id;
+    private String headSha;
+    private String name;
+    private String status;
+    private String conclusion;
+    private String url;
+    private String htmlUrl;
+    private String detailsUrl;
+    private Date startedAt;
+    private Date completedAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(final long id) {
+        this.id = id;
+    }
+
+    public String getHeadSha() {
+        return headSha;
+    }
+
+    public void setHeadSha(final String headSha) {
+        this.headSha = headSha;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(final String status) {
+        this.status = status;
+    }
+
+    public String getConclusion() {
+        return conclusion;
+    }
+
+    public void setConclusion(final String conclusion) {
+        this.conclusion = conclusion;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(final String url) {
+        this.url = url;
+    }
+
+    public String getHtmlUrl() {
+        return htmlUrl;
+    }
+
+    public void setHtmlUrl(final String htmlUrl) {
+        this.htmlUrl = htmlUrl;
+    }
+
+    public String getDetailsUrl() {
+        return detailsUrl;
+    }
+
+    public void setDetailsUrl(final String detailsUrl) {
+        this.detailsUrl = detailsUrl;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(final Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(final Date completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,123 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.service.GitHubService;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Check runs, see https://developer.github.com/v3/checks/runs/
+ *
+ * Note: GitHub only allows GitHub Apps to create check runs.
+ *
+ * @author Aaron Whiteside
+ */
+public class ExtendedChecksService extends GitHubService {
+
+    private static final String ANTIOPE_PREVIEW = "application/vnd.github.antiope-preview+json";
+
+    /**
+     * The most annotations GitHub accepts with a single create or update.
+     */
+    public static final int MAX_ANNOTATIONS = 50;
+
+    public ExtendedChecksService(final ExtendedGitHubClient client) {
+        super(client);
+    }
+
+    public ExtendedGitHubClient getClient() {
+        return (ExtendedGitHubClient) this.client;
+    }
+
+    public ExtendedCheckRun createCheckRun(final IRepositoryIdProvider repository,
+                                           final String name,
+                                           final String headSha,
+                                           final String status,
+                                           final String detailsUrl) throws IOException {
+        Objects.requireNonNull(name, "name cannot be null");
+        Objects.requireNonNull(headSha, "headSha cannot be null");
+
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/check-runs");
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("name", name);
+        params.put("head_sha", headSha);
+        if (status != null) {
+            params.put("status", status);
+        }
+        if (detailsUrl != null) {
+            params.put("details_url", detailsUrl);
+        }
+        return getClient().post(uri.toString(), params, ExtendedCheckRun.class, ANTIOPE_PREVIEW);
+    }
+
+    /**
+     * Completes a check run.
+     */
+    public ExtendedCheckRun completeCheckRun(final IRepositoryIdProvider repository,
+                                             final long id,
+                                             final String conclusion,
+                                             final String title,
+                                             final String summary) throws IOException {
+        Objects.requireNonNull(conclusion, "conclusion cannot be null");
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("status", "completed");
+        params.put("conclusion", conclusion);
+        params.put("completed_at", new Date());
+        if (title != null && summary != null) {
+            params.put("output", output(title, summary, null));
+        }
+        return updateCheckRun(repository, id, params);
+    }
+
+    /**
+     * Adds up to {@link #MAX_ANNOTATIONS} annotations to a check run, GitHub appends rather than replaces them.
+     */
+    public ExtendedCheckRun addAnnotations(final IRepositoryIdProvider repository,
+                                           final long id,
+                                           final String title,
+                                           final String summary,
+                                           final List<CheckRunAnnotation> annotations) throws IOException {
+        Objects.requireNonNull(title, "title cannot be null");
+        Objects.requireNonNull(summary, "summary cannot be null");
+        if (annotations.size() > MAX_ANNOTATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_ANNOTATIONS + " annotations can be added at once");
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("output", output(title, summary, annotations));
+        return updateCheckRun(repository, id, params);
+    }
+
+    private ExtendedCheckRun updateCheckRun(final IRepositoryIdProvider repository,
+                                            final long id,
+                                            final Map<String, Object> params) throws IOException {
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/check-runs");
+        uri.append('/').append(id);
+        return getClient().patch(uri.toString(), params, ExtendedCheckRun.class, ANTIOPE_PREVIEW);
+    }
+
+    private static Map<String, Object> output(final String title,
+                                              final String summary,
+                                              final List<CheckRunAnnotation> annotations) {
+        Map<String, Object> output = new HashMap<>();
+        output.put("title", title);
+        output.put("summary", summary);
+        if (annotations != null) {
+            output.put("annotations", annotations);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,53 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.eclipse.egit.github.core.client.RequestException;
+import org.eclipse.egit.github.core.service.CollaboratorService;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class ExtendedCollaboratorService extends CollaboratorService {
+
+    public ExtendedCollaboratorService(final ExtendedGitHubClient client) {
+        super(client);
+    }
+
+    @Override
+    public ExtendedGitHubClient getClient() {
+        return (ExtendedGitHubClient) super.getClient();
+    }
+
+    /**
+     * @return the user's permission on the repository, {@link CollaboratorPermission#NONE} if the user doesn't exist
+     */
+    public CollaboratorPermission getPermission(final IRepositoryIdProvider repository,
+                                                final String user) throws IOException {
+        Objects.requireNonNull(user, "user cannot be null");
+        if (user.isEmpty()) {
+            throw new IllegalArgumentException("user cannot be empty");
+        }
+
+        String id = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(id);
+        uri.append("/collaborators");
+        uri.append('/').append(user);
+        uri.append("/permission");
+        GitHubRequest request = createRequest();
+        request.setUri(uri);
+        request.setType(ExtendedRepositoryPermission.class);
+        try {
+            return CollaboratorPermission.of((ExtendedRepositoryPermission) getClient().get(request).getBody());
+        } catch (final RequestException e) {
+            if (e.getStatus() == 404) {
+                return CollaboratorPermission.NONE;
+            }
+            throw e;
+        }
+    }
+}
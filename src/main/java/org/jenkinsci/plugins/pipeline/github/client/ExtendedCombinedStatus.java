@@ -0,0 +1,52 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.CommitStatus;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A page of a commit's combined status, see https://developer.github.com/v3/repos/statuses/#get-the-combined-status-for-a-specific-ref
+ *
+ * @author Aaron Whiteside
+ */
+public class ExtendedCombinedStatus implements Serializable {
+    private static final long serialVersionUID = -1417403716283532386L;
+
+    private String state;
+    private String sha;
+    private int totalCount;
+    private List<CommitStatus> statuses;
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(final String state) {
+        this.state = state;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    public void setSha(final String sha) {
+        this.sha = sha;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(final int totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public List<CommitStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(final List<CommitStatus> statuses) {
+        this.statuses = statuses;
+    }
+}
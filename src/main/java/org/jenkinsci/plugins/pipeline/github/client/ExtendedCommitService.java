@@ -105,4 +105,28 @@ public class ExtendedCommitService extends CommitService {
         request.setType((new TypeToken<List<ExtendedCommitComment>>() {}).getType());
         return createPageIterator(request);
     }
+
+    /**
+     * @param page the 1-based page number
+     */
+    public ExtendedCombinedStatus getCombinedStatus(final IRepositoryIdProvider repository,
+                                                    final String sha,
+                                                    final int page,
+                                                    final int size) throws IOException {
+        Objects.requireNonNull(sha, "sha cannot be null");
+        if(sha.isEmpty()) {
+            throw new IllegalArgumentException("sha cannot be empty");
+        }
+
+        String id = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(id);
+        uri.append("/commits");
+        uri.append('/').append(sha);
+        uri.append("/status");
+        PagedRequest<ExtendedCombinedStatus> request = createPagedRequest(page, size);
+        request.setUri(uri);
+        request.setType(ExtendedCombinedStatus.class);
+        return (ExtendedCombinedStatus) getClient().get(request).getBody();
+    }
 }
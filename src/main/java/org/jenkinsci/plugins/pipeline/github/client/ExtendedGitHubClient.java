@@ -1,17 +1,40 @@
 package org.jenkinsci.plugins.pipeline.github.client;
 
 import org.eclipse.egit.github.core.client.GitHubClient;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.eclipse.egit.github.core.client.GitHubResponse;
+import org.eclipse.egit.github.core.client.PagedRequest;
 import org.eclipse.egit.github.core.client.RequestException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
+ * Once {@link #seal() sealed} a client's configuration can no longer be changed, which allows it to be shared.
+ *
  * @author Aaron Whiteside
+ * @see GitHubClientRegistry
  */
 public class ExtendedGitHubClient extends GitHubClient {
 
+    private HttpConnectionFactory connectionFactory = DefaultHttpConnectionFactory.INSTANCE;
+    private ConditionalRequestCache cache;
+    private RateLimitState rateLimit = new RateLimitState();
+    private RequestScheduler scheduler;
+    private String credentialKey = "anonymous";
+    private volatile boolean sealed;
+
+    // set while a GET is being sent, so paged listings are scheduled as such whatever their uri
+    private static final ThreadLocal<RequestPriority> getPriority = new ThreadLocal<>();
+
     public ExtendedGitHubClient() {
     }
 
@@ -23,6 +46,182 @@ public class ExtendedGitHubClient extends GitHubClient {
         super(hostname, port, scheme);
     }
 
+    public HttpConnectionFactory getConnectionFactory() {
+        return connectionFactory;
+    }
+
+    public ExtendedGitHubClient setConnectionFactory(final HttpConnectionFactory connectionFactory) {
+        checkNotSealed();
+        this.connectionFactory = connectionFactory == null ? DefaultHttpConnectionFactory.INSTANCE : connectionFactory;
+        return this;
+    }
+
+    public ConditionalRequestCache getCache() {
+        return cache;
+    }
+
+    /**
+     * When set, GET requests are sent conditionally and 304 Not Modified responses are served from the cache.
+     */
+    public ExtendedGitHubClient setCache(final ConditionalRequestCache cache) {
+        checkNotSealed();
+        this.cache = cache;
+        return this;
+    }
+
+    public RateLimitState getRateLimit() {
+        return rateLimit;
+    }
+
+    public ExtendedGitHubClient setRateLimit(final RateLimitState rateLimit) {
+        checkNotSealed();
+        this.rateLimit = rateLimit;
+        return this;
+    }
+
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * When set, every request waits for the scheduler's permission before it is sent.
+     */
+    public ExtendedGitHubClient setScheduler(final RequestScheduler scheduler) {
+        checkNotSealed();
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    /**
+     * Prevents any further configuration changes.
+     */
+    public ExtendedGitHubClient seal() {
+        sealed = true;
+        return this;
+    }
+
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    private void checkNotSealed() {
+        if (sealed) {
+            throw new IllegalStateException("This client is shared and cannot be reconfigured");
+        }
+    }
+
+    /**
+     * @return a digest of the credentials in use, so that what one set of credentials was allowed to see can be
+     * kept apart from what another was
+     */
+    public String getCredentialKey() {
+        return credentialKey;
+    }
+
+    /**
+     * @return the uri of the API requests are sent to, such as {@code https://api.github.com}
+     */
+    public String getApiUri() {
+        return this.createUri("");
+    }
+
+    @Override
+    public GitHubClient setCredentials(final String user, final String password) {
+        checkNotSealed();
+        credentialKey = user == null ? "anonymous" : digest(user + ':' + password);
+        return super.setCredentials(user, password);
+    }
+
+    @Override
+    public GitHubClient setOAuth2Token(final String token) {
+        checkNotSealed();
+        credentialKey = token == null ? "anonymous" : digest(token);
+        return super.setOAuth2Token(token);
+    }
+
+    @Override
+    public GitHubClient setUserAgent(final String agent) {
+        checkNotSealed();
+        return super.setUserAgent(agent);
+    }
+
+    @Override
+    protected GitHubClient updateRateLimits(final HttpURLConnection request) {
+        super.updateRateLimits(request);
+        rateLimit.update(request);
+        return this;
+    }
+
+    @Override
+    protected HttpURLConnection createConnection(final String uri) throws IOException {
+        return connectionFactory.create(new URL(this.createUri(uri)));
+    }
+
+    @Override
+    protected HttpURLConnection createConnection(final String uri, final String method) throws IOException {
+        if (scheduler != null) {
+            RequestPriority priority = "GET".equals(method) ? getPriority.get() : null;
+            scheduler.acquire(priority != null ? priority : RequestPriority.of(method, uri));
+        }
+        return super.createConnection(uri, method);
+    }
+
+    @Override
+    public GitHubResponse get(final GitHubRequest request) throws IOException {
+        getPriority.set(request instanceof PagedRequest ? RequestPriority.BULK : RequestPriority.READ);
+        try {
+            return cache == null ? super.get(request) : getConditionally(request);
+        } finally {
+            getPriority.remove();
+        }
+    }
+
+    private GitHubResponse getConditionally(final GitHubRequest request) throws IOException {
+        String uri = request.generateUri();
+        String accept = request.getResponseContentType();
+        // the full URL, the same path on two GitHub Enterprise hosts is a different resource
+        String key = credentialKey + ' ' + accept + ' ' + this.createUri(uri);
+
+        HttpURLConnection httpRequest = this.createGet(uri);
+        if (accept != null) {
+            httpRequest.setRequestProperty("Accept", accept);
+        }
+
+        ConditionalRequestCache.Entry cached = cache.get(key);
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                httpRequest.setRequestProperty("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                httpRequest.setRequestProperty("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        int code = httpRequest.getResponseCode();
+        this.updateRateLimits(httpRequest);
+        if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+            cache.recordHit();
+            // lets the connection be reused
+            drain(httpRequest);
+            return new GitHubResponse(new CachedResponseConnection(httpRequest.getURL(), cached),
+                    this.getBody(request, new ByteArrayInputStream(cached.getBody())));
+        } else if (this.isOk(code)) {
+            cache.recordMiss();
+            byte[] body = readFully(this.getStream(httpRequest));
+            String etag = httpRequest.getHeaderField("ETag");
+            String lastModified = httpRequest.getHeaderField("Last-Modified");
+            if (etag != null || lastModified != null) {
+                cache.put(key, new ConditionalRequestCache.Entry(
+                        etag, lastModified, httpRequest.getHeaderField("Link"), body));
+            }
+            return new GitHubResponse(httpRequest, this.getBody(request, new ByteArrayInputStream(body)));
+        } else if (this.isEmpty(code)) {
+            return new GitHubResponse(httpRequest, null);
+        } else {
+            throw this.createException(this.getStream(httpRequest), code, httpRequest.getResponseMessage());
+        }
+    }
+
     public <V> V patch(final String uri, final Object params, final Type type) throws IOException {
         return patch(uri, params, type, null);
     }
@@ -84,4 +283,37 @@ public class ExtendedGitHubClient extends GitHubClient {
             throw this.createException(this.getStream(request), code, request.getResponseMessage());
         }
     }
+
+    private static byte[] readFully(final InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static void drain(final HttpURLConnection connection) {
+        try {
+            readFully(connection.getInputStream());
+        } catch (final IOException e) {
+            // nothing to reuse
+        }
+    }
+
+    static String digest(final String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (final byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
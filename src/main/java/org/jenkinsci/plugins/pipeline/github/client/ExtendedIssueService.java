@@ -1,23 +1,42 @@
 package org.jenkinsci.plugins.pipeline.github.client;
 
 import com.google.gson.reflect.TypeToken;
+import org.eclipse.egit.github.core.Comment;
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
 import org.eclipse.egit.github.core.Issue;
 import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.client.GitHubResponse;
 import org.eclipse.egit.github.core.client.PageIterator;
 import org.eclipse.egit.github.core.client.PagedRequest;
 import org.eclipse.egit.github.core.service.IssueService;
 
 import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.stream.Collectors.toList;
 
 /**
  * @author Aaron Whiteside
  */
 public class ExtendedIssueService extends IssueService {
 
+    private static final Pattern PAGE_PARAMETER = Pattern.compile("[?&]page=(\\d+)");
+
+    private static final AtomicLong skippedSyncCalls = new AtomicLong();
+
     public ExtendedIssueService(final ExtendedGitHubClient client) {
         super(client);
     }
@@ -141,4 +160,170 @@ public class ExtendedIssueService extends IssueService {
         getClient().delete(uri.toString());
     }
 
+    /**
+     * @param since only comments updated at or after this time, or null for all of them
+     */
+    public PageIterator<Comment> pageComments(final IRepositoryIdProvider repository,
+                                              final int issueNumber,
+                                              final Date since) {
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/issues");
+        uri.append('/').append(issueNumber);
+        uri.append("/comments");
+
+        PagedRequest<Comment> request = this.createPagedRequest(1, 100);
+        request.setUri(uri);
+        if (since != null) {
+            request.setParams(Collections.singletonMap("since", formatDate(since)));
+        }
+        request.setType((new TypeToken<List<Comment>>() {}).getType());
+        return this.createPageIterator(request);
+    }
+
+    /**
+     * @return the date in the ISO 8601 form the API expects
+     */
+    static String formatDate(final Date date) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.ENGLISH);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(date);
+    }
+
+    /**
+     * Finds the most recent comment of an issue that matches, reading pages from the newest to the oldest.
+     *
+     * @return the comment, or null if none matches
+     */
+    public Comment findLatestComment(final IRepositoryIdProvider repository,
+                                     final int issueNumber,
+                                     final Predicate<Comment> predicate) throws IOException {
+        GitHubResponse first = getCommentsPage(repository, issueNumber, 1);
+        int lastPage = pageNumber(first.getLast());
+        for (int page = lastPage; page > 1; page--) {
+            Comment comment = findLatest(getCommentsPage(repository, issueNumber, page), predicate);
+            if (comment != null) {
+                return comment;
+            }
+        }
+        return findLatest(first, predicate);
+    }
+
+    private GitHubResponse getCommentsPage(final IRepositoryIdProvider repository,
+                                           final int issueNumber,
+                                           final int page) throws IOException {
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/issues");
+        uri.append('/').append(issueNumber);
+        uri.append("/comments");
+
+        PagedRequest<Comment> request = this.createPagedRequest(page, 100);
+        request.setUri(uri);
+        request.setType((new TypeToken<List<Comment>>() {}).getType());
+        return getClient().get(request);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comment findLatest(final GitHubResponse response, final Predicate<Comment> predicate) {
+        List<Comment> comments = (List<Comment>) response.getBody();
+        if (comments != null) {
+            for (int i = comments.size() - 1; i >= 0; i--) {
+                if (predicate.test(comments.get(i))) {
+                    return comments.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    // the page number of a Link header url, 1 when there is no such link
+    private static int pageNumber(final String url) {
+        if (url != null) {
+            Matcher matcher = PAGE_PARAMETER.matcher(url);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Brings an issue's labels from their current to their desired values with as few calls as possible,
+     * none at all if they already match.
+     *
+     * @param current the issue's current labels, as previously returned by {@link #getLabels}
+     * @param desired the labels the issue should have
+     * @return the issue's labels after the change
+     */
+    public List<String> synchronizeLabels(final IRepositoryIdProvider repository,
+                                          final int issueNumber,
+                                          final Collection<String> current,
+                                          final Collection<String> desired) throws IOException {
+        List<String> toAdd = difference(desired, current);
+        List<String> toRemove = difference(current, desired);
+
+        if (toAdd.isEmpty() && toRemove.isEmpty()) {
+            skippedSyncCalls.incrementAndGet();
+            return new ArrayList<>(current);
+        } else if (toRemove.isEmpty()) {
+            return toLabelNames(addLabels(repository, issueNumber, toAdd));
+        } else if (toAdd.isEmpty() && toRemove.size() == 1) {
+            removeLabel(repository, issueNumber, toRemove.get(0));
+            List<String> result = new ArrayList<>(current);
+            result.remove(toRemove.get(0));
+            return result;
+        } else {
+            return toLabelNames(setLabels(repository, issueNumber, new ArrayList<>(desired)));
+        }
+    }
+
+    /**
+     * Brings an issue's assignees from their current to their desired values with as few calls as possible,
+     * none at all if they already match.
+     *
+     * @param current the issue's current assignees
+     * @param desired the assignees the issue should have
+     * @return the issue's assignees after the change
+     */
+    public List<String> synchronizeAssignees(final IRepositoryIdProvider repository,
+                                             final int issueNumber,
+                                             final Collection<String> current,
+                                             final Collection<String> desired) throws IOException {
+        List<String> toAdd = difference(desired, current);
+        List<String> toRemove = difference(current, desired);
+
+        if (toAdd.isEmpty() && toRemove.isEmpty()) {
+            skippedSyncCalls.incrementAndGet();
+        } else if (toRemove.isEmpty()) {
+            addAssignees(repository, issueNumber, toAdd);
+        } else if (toAdd.isEmpty()) {
+            removeAssignees(repository, issueNumber, toRemove);
+        } else {
+            setAssignees(repository, issueNumber, new ArrayList<>(desired));
+        }
+        return desired.stream().distinct().collect(toList());
+    }
+
+    /**
+     * @return how many label and assignee calls were skipped because nothing would have changed
+     */
+    public static long getSkippedSyncCalls() {
+        return skippedSyncCalls.get();
+    }
+
+    private static List<String> difference(final Collection<String> from, final Collection<String> remove) {
+        return from.stream()
+                .filter(v -> !remove.contains(v))
+                .distinct()
+                .collect(toList());
+    }
+
+    private static List<String> toLabelNames(final List<Label> labels) {
+        return labels.stream()
+                .map(Label::getName)
+                .collect(toList());
+    }
 }
@@ -13,6 +13,7 @@ public class ExtendedPullRequest extends PullRequest {
     private boolean locked;
     private String mergeCommitSha;
     private Boolean maintainerCanModify;
+    private String mergeableState;
 
     public User getClosedBy() {
         return closedBy;
@@ -45,4 +46,15 @@ public class ExtendedPullRequest extends PullRequest {
     public void setMaintainerCanModify(final Boolean maintainerCanModify) {
         this.maintainerCanModify = maintainerCanModify;
     }
+
+    /**
+     * @return "unknown" while GitHub is still computing whether the pull request can be merged
+     */
+    public String getMergeableState() {
+        return mergeableState;
+    }
+
+    public void setMergeableState(final String mergeableState) {
+        this.mergeableState = mergeableState;
+    }
 }
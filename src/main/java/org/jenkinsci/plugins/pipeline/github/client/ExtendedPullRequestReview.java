@@ -0,0 +1,77 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.User;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class ExtendedPullRequestReview implements Serializable {
+    private static final long serialVersionUID = -2473318526398257811L;
+
+    private long id;
+    private User user;
+    private String body;
+    private String state;
+    private String commitId;
+    private String htmlUrl;
+    private Date submittedAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(final long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(final User user) {
+        this.user = user;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(final String body) {
+        this.body = body;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(final String state) {
+        this.state = state;
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public void setCommitId(final String commitId) {
+        this.commitId = commitId;
+    }
+
+    public String getHtmlUrl() {
+        return htmlUrl;
+    }
+
+    public void setHtmlUrl(final String htmlUrl) {
+        this.htmlUrl = htmlUrl;
+    }
+
+    public Date getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(final Date submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+}
@@ -1,6 +1,7 @@
 package org.jenkinsci.plugins.pipeline.github.client;
 
 import com.google.gson.reflect.TypeToken;
+import org.eclipse.egit.github.core.CommitFile;
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
 import org.eclipse.egit.github.core.User;
 import org.eclipse.egit.github.core.client.GitHubRequest;
@@ -9,6 +10,9 @@ import org.eclipse.egit.github.core.client.PagedRequest;
 import org.eclipse.egit.github.core.service.PullRequestService;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +25,11 @@ public class ExtendedPullRequestService extends PullRequestService {
 
     private static final String BLACK_CAT_PREVIEW = "application/vnd.github.black-cat-preview+json";
 
+    /**
+     * The most inline comments submitted with a single review, larger sets are split across several reviews.
+     */
+    public static final int MAX_REVIEW_COMMENTS = 50;
+
     public ExtendedPullRequestService(final ExtendedGitHubClient client) {
         super(client);
     }
@@ -102,6 +111,24 @@ public class ExtendedPullRequestService extends PullRequestService {
         return getClient().put(uri.toString(), params, ExtendedMergeStatus.class);
     }
 
+    @SuppressWarnings("unchecked")
+    public List<CommitFile> getFilesPage(final IRepositoryIdProvider repository,
+                                         final int id,
+                                         final int page,
+                                         final int size) throws IOException {
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/pulls");
+        uri.append('/').append(id);
+        uri.append("/files");
+
+        PagedRequest<CommitFile> request = this.createPagedRequest(page, size);
+        request.setUri(uri);
+        request.setType((new TypeToken<List<CommitFile>>(){}).getType());
+        return (List<CommitFile>) getClient().get(request).getBody();
+    }
+
     public PageIterator<ExtendedCommitComment> pageComments2(final IRepositoryIdProvider repository,
                                                              final int id) {
         String repoId = this.getId(repository);
@@ -117,6 +144,28 @@ public class ExtendedPullRequestService extends PullRequestService {
         return this.createPageIterator(request);
     }
 
+    /**
+     * @param since only comments updated at or after this time, or null for all of them
+     */
+    public PageIterator<ExtendedCommitComment> pageComments2(final IRepositoryIdProvider repository,
+                                                             final int id,
+                                                             final Date since) {
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/pulls");
+        uri.append('/').append(id);
+        uri.append("/comments");
+
+        PagedRequest<ExtendedCommitComment> request = this.createPagedRequest(1, 100);
+        request.setUri(uri);
+        if (since != null) {
+            request.setParams(Collections.singletonMap("since", ExtendedIssueService.formatDate(since)));
+        }
+        request.setType((new TypeToken<List<ExtendedCommitComment>>(){}).getType());
+        return this.createPageIterator(request);
+    }
+
     public ExtendedCommitComment createComment2(final IRepositoryIdProvider repository,
                                                 final int id,
                                                 final ExtendedCommitComment comment) throws IOException {
@@ -157,6 +206,93 @@ public class ExtendedPullRequestService extends PullRequestService {
         return (ExtendedCommitComment)this.client.post(uri.toString(), comment, ExtendedCommitComment.class);
     }
 
+    /**
+     * Submits a review together with all of its inline comments.
+     *
+     * When there are more than {@link #MAX_REVIEW_COMMENTS} comments they are submitted in chunks, every chunk
+     * but the last as a plain COMMENT review, the last carries the body and event, so a review is only ever
+     * approved or rejected once. GitHub requires a body for COMMENT reviews, the earlier chunks are given one
+     * numbering the parts.
+     *
+     * @param event one of APPROVE, REQUEST_CHANGES or COMMENT
+     * @return the submitted reviews, in order
+     */
+    public List<ExtendedPullRequestReview> createReviews(final IRepositoryIdProvider repository,
+                                                         final int id,
+                                                         final String commitId,
+                                                         final String body,
+                                                         final String event,
+                                                         final List<ExtendedCommitComment> comments) throws IOException {
+        Objects.requireNonNull(comments, "comments cannot be null");
+
+        int parts = Math.max(1, (comments.size() + MAX_REVIEW_COMMENTS - 1) / MAX_REVIEW_COMMENTS);
+        List<ExtendedPullRequestReview> reviews = new ArrayList<>(parts);
+        for (int part = 1; part <= parts; part++) {
+            int from = (part - 1) * MAX_REVIEW_COMMENTS;
+            int to = Math.min(comments.size(), from + MAX_REVIEW_COMMENTS);
+            boolean last = part == parts;
+            reviews.add(createReview(repository, id, commitId,
+                    last ? body : "Review comments (part " + part + " of " + parts + ")",
+                    last ? event : "COMMENT",
+                    comments.subList(from, to)));
+        }
+        return reviews;
+    }
+
+    public ExtendedPullRequestReview createReview(final IRepositoryIdProvider repository,
+                                                  final int id,
+                                                  final String commitId,
+                                                  final String body,
+                                                  final String event,
+                                                  final List<ExtendedCommitComment> comments) throws IOException {
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/pulls");
+        uri.append('/').append(id);
+        uri.append("/reviews");
+
+        List<Map<String, Object>> draftComments = new ArrayList<>(comments.size());
+        for (final ExtendedCommitComment comment : comments) {
+            Map<String, Object> draft = new HashMap<>();
+            draft.put("path", comment.getPath());
+            draft.put("position", comment.getPosition());
+            draft.put("body", comment.getBody());
+            draftComments.add(draft);
+        }
+
+        Map<String, Object> params = new HashMap<>();
+        if (commitId != null) {
+            params.put("commit_id", commitId);
+        }
+        if (body != null) {
+            params.put("body", body);
+        }
+        if (event != null) {
+            params.put("event", event);
+        }
+        params.put("comments", draftComments);
+        return getClient().post(uri.toString(), params, ExtendedPullRequestReview.class, null);
+    }
+
+    public PageIterator<ExtendedCommitComment> pageReviewComments(final IRepositoryIdProvider repository,
+                                                                  final int id,
+                                                                  final long reviewId) {
+        String repoId = this.getId(repository);
+        StringBuilder uri = new StringBuilder("/repos");
+        uri.append('/').append(repoId);
+        uri.append("/pulls");
+        uri.append('/').append(id);
+        uri.append("/reviews");
+        uri.append('/').append(reviewId);
+        uri.append("/comments");
+
+        PagedRequest<ExtendedCommitComment> request = this.createPagedRequest(1, 100);
+        request.setUri(uri);
+        request.setType((new TypeToken<List<ExtendedCommitComment>>(){}).getType());
+        return this.createPageIterator(request);
+    }
+
     public PageIterator<User> pageRequestedReviewers(final IRepositoryIdProvider repository, final int id) {
         String repoId = this.getId(repository);
         StringBuilder uri = new StringBuilder("/repos");
@@ -0,0 +1,42 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.User;
+
+import java.io.Serializable;
+
+/**
+ * A user's permission on a repository, see https://developer.github.com/v3/repos/collaborators/#review-a-users-permission-level
+ *
+ * @author Aaron Whiteside
+ */
+public class ExtendedRepositoryPermission implements Serializable {
+    private static final long serialVersionUID = 4417538412618375920L;
+
+    private String permission;
+    private String roleName;
+    private User user;
+
+    public String getPermission() {
+        return permission;
+    }
+
+    public void setPermission(final String permission) {
+        this.permission = permission;
+    }
+
+    public String getRoleName() {
+        return roleName;
+    }
+
+    public void setRoleName(final String roleName) {
+        this.roleName = roleName;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(final User user) {
+        this.user = user;
+    }
+}
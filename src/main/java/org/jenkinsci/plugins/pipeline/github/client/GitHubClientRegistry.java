@@ -0,0 +1,163 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller wide registry of {@link ExtendedGitHubClient}s.
+ *
+ * Clients are keyed by API uri, credentials id and a fingerprint of the credential itself, and are shared by
+ * every build that uses the same credential. When the credential behind an id changes, the old client, and its
+ * scheduler unless another client shares it, are dropped and a new one created.
+ *
+ * The registry also owns the state clients report to: the response cache, the connection pool and the per
+ * credential rate limits.
+ *
+ * @author Aaron Whiteside
+ */
+public final class GitHubClientRegistry {
+
+    private static final String PREFIX = GitHubClientRegistry.class.getName();
+
+    // shared by every client, entries are keyed by credential so nothing leaks between jobs
+    private static final ConditionalRequestCache RESPONSE_CACHE = new ConditionalRequestCache(
+            Long.getLong(PREFIX + ".responseCacheBytes", 16L * 1024 * 1024));
+
+    // shared by every client so connections to an API host are kept alive across builds
+    private static final HttpConnectionFactory CONNECTION_FACTORY = createConnectionFactory();
+
+    private static final Map<String, Registration> clients = new ConcurrentHashMap<>();
+    private static final Map<String, RequestScheduler> schedulers = new ConcurrentHashMap<>();
+
+    // how long a request may be held back waiting for rate limit budget before it is sent anyway
+    private static final long MAX_SCHEDULER_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(
+            Long.getLong(PREFIX + ".maxRateLimitWaitSeconds", 3600L));
+
+    // the same, for requests sent from the CPS VM thread, webhook handlers or anywhere else outside the background
+    private static final long MAX_FOREGROUND_SCHEDULER_WAIT_MILLIS = TimeUnit.SECONDS.toMillis(
+            Long.getLong(PREFIX + ".maxForegroundRateLimitWaitSeconds", 10L));
+
+    private GitHubClientRegistry() {
+        // go away
+    }
+
+    /**
+     * Returns the shared client for the given API uri and credential, creating it if needed.
+     *
+     * @param apiUri        the API uri, or null for github.com
+     * @param credentialsId the id the credential was looked up by, or null when supplied directly
+     * @param userName      the user name, or null for anonymous access
+     * @param password      the password or token
+     */
+    public static ExtendedGitHubClient getClient(final String apiUri,
+                                                 final String credentialsId,
+                                                 final String userName,
+                                                 final String password) {
+        String owner = apiUri + '\n' + (credentialsId != null ? credentialsId : userName);
+        String fingerprint = userName == null
+                ? "anonymous"
+                : ExtendedGitHubClient.digest(userName + ':' + password);
+        String key = owner + '\n' + fingerprint;
+
+        Registration existing = clients.get(key);
+        if (existing != null) {
+            return existing.client;
+        }
+        synchronized (clients) {
+            existing = clients.get(key);
+            if (existing != null) {
+                return existing.client;
+            }
+            String name = (apiUri == null ? "https://api.github.com" : apiUri)
+                    + " (" + (credentialsId != null ? credentialsId : userName) + ")";
+            String schedulerKey = apiUri + '\n' + fingerprint;
+            Registration registration = new Registration(name, owner, schedulerKey,
+                    createClient(apiUri, schedulerKey, userName, password));
+            // the credential was changed, the clients of its previous secrets won't be asked for again
+            clients.values().removeIf(stale -> stale.owner.equals(owner));
+            clients.put(key, registration);
+            schedulers.keySet().removeIf(scheduled -> clients.values().stream()
+                    .noneMatch(remaining -> remaining.schedulerKey.equals(scheduled)));
+            return registration.client;
+        }
+    }
+
+    private static ExtendedGitHubClient createClient(final String apiUri,
+                                                     final String schedulerKey,
+                                                     final String userName,
+                                                     final String password) {
+        ExtendedGitHubClient client;
+        if (apiUri == null) {
+            client = new ExtendedGitHubClient();
+        } else {
+            URI uri = URI.create(apiUri);
+            client = new ExtendedGitHubClient(uri.getHost(), uri.getPort(), uri.getScheme());
+        }
+        if (userName != null) {
+            client.setCredentials(userName, password);
+        }
+        client.setConnectionFactory(CONNECTION_FACTORY);
+        client.setCache(RESPONSE_CACHE);
+        RequestScheduler scheduler = schedulers.computeIfAbsent(schedulerKey,
+                k -> new RequestScheduler(new RateLimitState(), MAX_SCHEDULER_WAIT_MILLIS,
+                        MAX_FOREGROUND_SCHEDULER_WAIT_MILLIS));
+        client.setRateLimit(scheduler.getRateLimit());
+        client.setScheduler(scheduler);
+        return client.seal();
+    }
+
+    private static HttpConnectionFactory createConnectionFactory() {
+        if ("legacy".equals(System.getProperty(PREFIX + ".transport"))) {
+            return DefaultHttpConnectionFactory.INSTANCE;
+        }
+        return new OkHttpConnectionFactory(
+                Integer.getInteger(PREFIX + ".poolSize", 5),
+                TimeUnit.SECONDS.toMillis(Long.getLong(PREFIX + ".poolKeepAliveSeconds", 300L)),
+                TimeUnit.SECONDS.toMillis(Long.getLong(PREFIX + ".connectTimeoutSeconds", 10L)),
+                TimeUnit.SECONDS.toMillis(Long.getLong(PREFIX + ".readTimeoutSeconds", 60L)));
+    }
+
+    public static ConditionalRequestCache getResponseCache() {
+        return RESPONSE_CACHE;
+    }
+
+    public static HttpConnectionFactory getConnectionFactory() {
+        return CONNECTION_FACTORY;
+    }
+
+    /**
+     * @return the scheduler of each registered client, keyed by API uri and credentials id (or user name)
+     */
+    public static Map<String, RequestScheduler> getSchedulers() {
+        Map<String, RequestScheduler> result = new TreeMap<>();
+        clients.values().forEach(registration -> result.put(registration.name, registration.client.getScheduler()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    public static int getClientCount() {
+        return clients.size();
+    }
+
+    private static final class Registration {
+        private final String name;
+        // API uri + credentials id (or user name)
+        private final String owner;
+        // API uri + fingerprint, clients of one account share a scheduler as they share its rate limit
+        private final String schedulerKey;
+        private final ExtendedGitHubClient client;
+
+        private Registration(final String name,
+                             final String owner,
+                             final String schedulerKey,
+                             final ExtendedGitHubClient client) {
+            this.name = name;
+            this.owner = owner;
+            this.schedulerKey = schedulerKey;
+            this.client = client;
+        }
+    }
+}
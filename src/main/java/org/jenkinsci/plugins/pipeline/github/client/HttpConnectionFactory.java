@@ -0,0 +1,18 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Transport used by {@link ExtendedGitHubClient} to open its connections.
+ *
+ * @author Aaron Whiteside
+ * @see DefaultHttpConnectionFactory
+ * @see OkHttpConnectionFactory
+ */
+public interface HttpConnectionFactory {
+
+    HttpURLConnection create(URL url) throws IOException;
+
+}
@@ -0,0 +1,125 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import com.squareup.okhttp.Authenticator;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Credentials;
+import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.OkUrlFactory;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.Response;
+import hudson.ProxyConfiguration;
+import jenkins.model.Jenkins;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled transport backed by OkHttp, the same library the GitHub Branch Source plugin uses.
+ *
+ * A single instance is meant to be shared by every client, so connections to an API host are kept alive
+ * (and multiplexed when the server negotiates HTTP/2) across requests, builds and jobs. Like the legacy
+ * transport it goes through Jenkins' proxy configuration, when there is one.
+ *
+ * @author Aaron Whiteside
+ */
+public class OkHttpConnectionFactory implements HttpConnectionFactory {
+
+    private final OkHttpClient client;
+    private final OkUrlFactory urlFactory;
+
+    /**
+     * @param maxIdleConnections maximum number of idle connections kept per pool
+     * @param keepAliveMillis    how long an idle connection is kept before it is evicted
+     * @param connectTimeoutMillis connect timeout, 0 for none
+     * @param readTimeoutMillis    read timeout, 0 for none
+     */
+    public OkHttpConnectionFactory(final int maxIdleConnections,
+                                   final long keepAliveMillis,
+                                   final long connectTimeoutMillis,
+                                   final long readTimeoutMillis) {
+        this.client = new OkHttpClient();
+        client.setConnectionPool(new ConnectionPool(maxIdleConnections, keepAliveMillis));
+        client.setConnectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS);
+        client.setReadTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS);
+        client.setProtocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+        client.setProxySelector(new JenkinsProxySelector(ProxySelector.getDefault()));
+        client.setAuthenticator(new JenkinsProxyAuthenticator());
+        this.urlFactory = new OkUrlFactory(client);
+    }
+
+    @Override
+    public HttpURLConnection create(final URL url) {
+        return urlFactory.open(url);
+    }
+
+    public int getConnectionCount() {
+        return client.getConnectionPool().getConnectionCount();
+    }
+
+    public int getIdleConnectionCount() {
+        return client.getConnectionPool().getIdleConnectionCount();
+    }
+
+    private static ProxyConfiguration proxyConfiguration() {
+        Jenkins jenkins = Jenkins.getInstanceOrNull();
+        return jenkins == null ? null : jenkins.proxy;
+    }
+
+    /**
+     * Looks the proxy up per request, so changes to Jenkins' proxy configuration apply to pooled clients too.
+     */
+    private static final class JenkinsProxySelector extends ProxySelector {
+        private final ProxySelector fallback;
+
+        private JenkinsProxySelector(final ProxySelector fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public List<Proxy> select(final URI uri) {
+            ProxyConfiguration proxy = proxyConfiguration();
+            if (proxy != null) {
+                return Collections.singletonList(proxy.createProxy(uri.getHost()));
+            }
+            return fallback == null ? Collections.singletonList(Proxy.NO_PROXY) : fallback.select(uri);
+        }
+
+        @Override
+        public void connectFailed(final URI uri, final SocketAddress address, final IOException e) {
+            if (proxyConfiguration() == null && fallback != null) {
+                fallback.connectFailed(uri, address, e);
+            }
+        }
+    }
+
+    private static final class JenkinsProxyAuthenticator implements Authenticator {
+        @Override
+        public Request authenticate(final Proxy proxy, final Response response) {
+            // GitHub's own credentials are sent up front, a 401 is final
+            return null;
+        }
+
+        @Override
+        public Request authenticateProxy(final Proxy proxy, final Response response) {
+            ProxyConfiguration configuration = proxyConfiguration();
+            if (configuration == null || configuration.getUserName() == null
+                    || response.request().header("Proxy-Authorization") != null) {
+                return null;
+            }
+            return response.request().newBuilder()
+                    .header("Proxy-Authorization",
+                            Credentials.basic(configuration.getUserName(), configuration.getPassword()))
+                    .build();
+        }
+    }
+}
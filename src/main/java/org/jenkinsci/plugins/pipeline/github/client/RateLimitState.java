@@ -0,0 +1,77 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.net.HttpURLConnection;
+
+/**
+ * The most recently reported rate limit of a single credential.
+ *
+ * Shared by every {@link ExtendedGitHubClient} using that credential, each response updates it.
+ *
+ * @author Aaron Whiteside
+ */
+public class RateLimitState {
+
+    private volatile int limit = -1;
+    private volatile int remaining = -1;
+    private volatile long resetEpochSeconds = -1;
+
+    void update(final HttpURLConnection response) {
+        Integer newLimit = parseInt(response.getHeaderField("X-RateLimit-Limit"));
+        Integer newRemaining = parseInt(response.getHeaderField("X-RateLimit-Remaining"));
+        Long newReset = parseLong(response.getHeaderField("X-RateLimit-Reset"));
+        synchronized (this) {
+            if (newLimit != null) {
+                limit = newLimit;
+            }
+            if (newRemaining != null) {
+                remaining = newRemaining;
+            }
+            if (newReset != null) {
+                resetEpochSeconds = newReset;
+            }
+        }
+    }
+
+    /**
+     * @return the request limit per hour, or -1 if unknown
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of requests remaining in the current window, or -1 if unknown
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * @return when the current window resets, in seconds since the epoch, or -1 if unknown
+     */
+    public long getResetEpochSeconds() {
+        return resetEpochSeconds;
+    }
+
+    private static Integer parseInt(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(final String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+/**
+ * Priority classes used by the {@link RequestScheduler} when a credential's rate limit runs low.
+ *
+ * Each class keeps a share of the hourly limit in reserve for the classes above it.
+ *
+ * @author Aaron Whiteside
+ */
+public enum RequestPriority {
+    /** Merges and commit status writes, never held back while any budget remains. */
+    CRITICAL(0.0),
+    /** All other mutations. */
+    WRITE(0.05),
+    /** Single resource reads. */
+    READ(0.10),
+    /** Paged listings, comment paging etc. */
+    BULK(0.20);
+
+    private final double reserve;
+
+    RequestPriority(final double reserve) {
+        this.reserve = reserve;
+    }
+
+    /**
+     * @return the number of requests that must remain before this class may use one
+     */
+    int reserve(final int limit) {
+        return (int) Math.ceil(limit * reserve);
+    }
+
+    /**
+     * Classifies a request by its method and uri, when the caller didn't say what it is.
+     */
+    static RequestPriority of(final String method, final String uri) {
+        if ("GET".equals(method)) {
+            return isPaged(uri) ? BULK : READ;
+        }
+        if (uri.endsWith("/merge") || uri.contains("/statuses/")) {
+            return CRITICAL;
+        }
+        return WRITE;
+    }
+
+    private static boolean isPaged(final String uri) {
+        int query = uri.indexOf('?');
+        if (query == -1) {
+            return false;
+        }
+        for (final String parameter : uri.substring(query + 1).split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals == -1 ? parameter : parameter.substring(0, equals);
+            if ("page".equals(name) || "per_page".equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
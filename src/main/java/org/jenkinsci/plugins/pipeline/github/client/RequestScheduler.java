@@ -0,0 +1,154 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Paces the requests of a single credential so the rate limit is not exhausted.
+ *
+ * Keeps a local estimate of the remaining budget (a token bucket refilled when the rate limit window resets),
+ * corrected by the {@link RateLimitState} every response reports. Each {@link RequestPriority} keeps a share of
+ * the budget in reserve for the classes above it; once a class's share is used up its requests wait for the
+ * window to reset rather than fail. While the budget is below half the limit, the requests of each non-critical
+ * class are spread evenly over the rest of the window, independently of the other classes.
+ *
+ * Only requests sent from a {@link BackgroundThreadFactory background thread} may wait until the window resets.
+ * Anywhere else, on a pipeline's CPS VM thread or a webhook handler, a request is held back briefly at most and
+ * then sent anyway, so that a build or webhook delivery is never stalled for long.
+ *
+ * @author Aaron Whiteside
+ */
+public class RequestScheduler {
+
+    private final RateLimitState rateLimit;
+    private final long maxWaitMillis;
+    private final long maxForegroundWaitMillis;
+
+    private final Map<RequestPriority, AtomicInteger> waiting = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Long> nextPacedNanos = new EnumMap<>(RequestPriority.class);
+    private final AtomicInteger delayed = new AtomicInteger();
+
+    private int tokens = -1;
+    private long windowReset = -1;
+
+    /**
+     * @param maxWaitMillis           how long a request sent from a background thread may be held back
+     * @param maxForegroundWaitMillis how long any other request may be held back
+     */
+    public RequestScheduler(final RateLimitState rateLimit,
+                            final long maxWaitMillis,
+                            final long maxForegroundWaitMillis) {
+        this.rateLimit = rateLimit;
+        this.maxWaitMillis = maxWaitMillis;
+        this.maxForegroundWaitMillis = maxForegroundWaitMillis;
+        for (final RequestPriority priority : RequestPriority.values()) {
+            waiting.put(priority, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Blocks until a request of the given priority may be sent, or the calling thread's maximum wait elapses.
+     */
+    void acquire(final RequestPriority priority) throws InterruptedIOException {
+        AtomicInteger depth = waiting.get(priority);
+        depth.incrementAndGet();
+        try {
+            long maxWait = BackgroundThreadFactory.isBackgroundThread() ? maxWaitMillis : maxForegroundWaitMillis;
+            long deadline = System.currentTimeMillis() + maxWait;
+            boolean wasDelayed = false;
+            synchronized (this) {
+                while (true) {
+                    refill();
+                    long now = System.currentTimeMillis();
+                    long wait = waitMillis(priority, now);
+                    if (wait <= 0 || now >= deadline) {
+                        if (tokens > 0) {
+                            tokens--;
+                        }
+                        return;
+                    }
+                    if (!wasDelayed) {
+                        wasDelayed = true;
+                        delayed.incrementAndGet();
+                    }
+                    this.wait(Math.min(wait, deadline - now));
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for GitHub rate limit budget");
+        } finally {
+            depth.decrementAndGet();
+        }
+    }
+
+    private long waitMillis(final RequestPriority priority, final long now) {
+        int limit = rateLimit.getLimit();
+        if (tokens < 0 || limit <= 0) {
+            // nothing reported yet
+            return 0;
+        }
+        long untilReset = Math.max(0, windowReset * 1000 - now) + 1000;
+        if (priority == RequestPriority.CRITICAL) {
+            return tokens > 0 ? 0 : untilReset;
+        }
+        int available = tokens - priority.reserve(limit);
+        if (available <= 0) {
+            return untilReset;
+        }
+        if (tokens < limit / 2) {
+            long nowNanos = System.nanoTime();
+            long interval = TimeUnit.MILLISECONDS.toNanos(untilReset) / available;
+            Long next = nextPacedNanos.get(priority);
+            if (next != null && nowNanos - next < 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(next - nowNanos));
+            }
+            nextPacedNanos.put(priority, nowNanos + interval);
+        }
+        return 0;
+    }
+
+    private void refill() {
+        long reset = rateLimit.getResetEpochSeconds();
+        int remaining = rateLimit.getRemaining();
+        if (reset != windowReset) {
+            // new window, start from what GitHub reported
+            windowReset = reset;
+            tokens = remaining;
+            notifyAll();
+        } else if (remaining >= 0 && remaining < tokens) {
+            // other clients sharing this credential used some of the budget
+            tokens = remaining;
+        } else if (tokens < 0) {
+            tokens = remaining;
+        }
+        if (windowReset > 0 && System.currentTimeMillis() >= windowReset * 1000 && tokens < rateLimit.getLimit()) {
+            tokens = rateLimit.getLimit();
+        }
+    }
+
+    public RateLimitState getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * @return the local estimate of the remaining budget, or -1 if unknown
+     */
+    public synchronized int getTokens() {
+        return tokens;
+    }
+
+    public int getQueueDepth(final RequestPriority priority) {
+        return waiting.get(priority).get();
+    }
+
+    /**
+     * @return how many requests had to wait for budget
+     */
+    public int getDelayedCount() {
+        return delayed.get();
+    }
+}
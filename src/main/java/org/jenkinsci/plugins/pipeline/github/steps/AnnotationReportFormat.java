@@ -0,0 +1,216 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jenkinsci.plugins.pipeline.github.client.CheckRunAnnotation;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Report formats check run annotations can be read from.
+ *
+ * Reports are parsed as a stream, only the finding being read is ever held in memory.
+ *
+ * @author Aaron Whiteside
+ */
+enum AnnotationReportFormat {
+
+    /**
+     * <pre>{@code <checkstyle><file name="..."><error line="1" severity="error" message="..." source="..."/></file></checkstyle>}</pre>
+     */
+    CHECKSTYLE {
+        @Override
+        void parse(final InputStream in, final String basePath, final AnnotationSink sink) throws IOException {
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            // reports are untrusted input
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            try {
+                XMLStreamReader reader = factory.createXMLStreamReader(in);
+                try {
+                    String file = null;
+                    while (reader.hasNext()) {
+                        if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                            continue;
+                        }
+                        String element = reader.getLocalName();
+                        if ("file".equals(element)) {
+                            file = relativize(reader.getAttributeValue(null, "name"), basePath);
+                        } else if ("error".equals(element) && file != null) {
+                            int line = parseLine(reader.getAttributeValue(null, "line"));
+                            String source = reader.getAttributeValue(null, "source");
+                            sink.accept(new CheckRunAnnotation()
+                                    .setPath(file)
+                                    .setStartLine(line)
+                                    .setEndLine(line)
+                                    .setAnnotationLevel(toLevel(reader.getAttributeValue(null, "severity")))
+                                    .setMessage(toMessage(reader.getAttributeValue(null, "message"), source))
+                                    .setTitle(source));
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (final XMLStreamException e) {
+                throw new IOException("Unable to parse checkstyle report", e);
+            }
+        }
+    },
+
+    /**
+     * SARIF 2.x, every result of every run with a physical location is reported.
+     */
+    SARIF {
+        @Override
+        void parse(final InputStream in, final String basePath, final AnnotationSink sink) throws IOException {
+            JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            JsonParser parser = new JsonParser();
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (!"runs".equals(reader.nextName())) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (!"results".equals(reader.nextName()) || reader.peek() != JsonToken.BEGIN_ARRAY) {
+                            reader.skipValue();
+                            continue;
+                        }
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            // a single result is small, so it's simpler to read it whole
+                            CheckRunAnnotation annotation = toAnnotation(parser.parse(reader), basePath);
+                            if (annotation != null) {
+                                sink.accept(annotation);
+                            }
+                        }
+                        reader.endArray();
+                    }
+                    reader.endObject();
+                }
+                reader.endArray();
+            }
+            reader.endObject();
+        }
+
+        private CheckRunAnnotation toAnnotation(final JsonElement element, final String basePath) {
+            JsonObject result = element.getAsJsonObject();
+            JsonObject location = path(result, "locations", "physicalLocation");
+            JsonObject artifact = path(location, "artifactLocation");
+            if (artifact == null || !artifact.has("uri")) {
+                return null;
+            }
+            JsonObject region = path(location, "region");
+            int startLine = region != null && region.has("startLine") ? region.get("startLine").getAsInt() : 1;
+            int endLine = region != null && region.has("endLine") ? region.get("endLine").getAsInt() : startLine;
+            JsonObject message = path(result, "message");
+
+            String uri = artifact.get("uri").getAsString();
+            if (uri.startsWith("file://")) {
+                uri = uri.substring("file://".length());
+            }
+            String ruleId = result.has("ruleId") ? result.get("ruleId").getAsString() : null;
+            return new CheckRunAnnotation()
+                    .setPath(relativize(uri, basePath))
+                    .setStartLine(startLine)
+                    .setEndLine(endLine)
+                    .setAnnotationLevel(toLevel(result.has("level") ? result.get("level").getAsString() : null))
+                    .setMessage(toMessage(message != null && message.has("text")
+                            ? message.get("text").getAsString() : null, ruleId))
+                    .setTitle(ruleId);
+        }
+
+        // follows object members, taking the first element of any array along the way
+        private JsonObject path(final JsonObject object, final String... names) {
+            JsonElement current = object;
+            for (final String name : names) {
+                if (current == null || !current.isJsonObject()) {
+                    return null;
+                }
+                current = current.getAsJsonObject().get(name);
+                if (current != null && current.isJsonArray()) {
+                    current = current.getAsJsonArray().size() == 0 ? null : current.getAsJsonArray().get(0);
+                }
+            }
+            return current != null && current.isJsonObject() ? current.getAsJsonObject() : null;
+        }
+    };
+
+    /**
+     * @param basePath absolute paths below this directory are made relative to it
+     */
+    abstract void parse(InputStream in, String basePath, AnnotationSink sink) throws IOException;
+
+    static AnnotationReportFormat of(final String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ENGLISH));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported report format: " + name + ", expected checkstyle or sarif");
+        }
+    }
+
+    interface AnnotationSink {
+        void accept(CheckRunAnnotation annotation) throws IOException;
+    }
+
+    static String relativize(final String path, final String basePath) {
+        String normalized = path.replace('\\', '/');
+        if (basePath != null) {
+            String base = basePath.replace('\\', '/');
+            if (!base.endsWith("/")) {
+                base = base + '/';
+            }
+            if (normalized.startsWith(base)) {
+                return normalized.substring(base.length());
+            }
+        }
+        return normalized;
+    }
+
+    private static int parseLine(final String line) {
+        try {
+            return line == null ? 1 : Math.max(1, Integer.parseInt(line));
+        } catch (final NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    // GitHub rejects annotations without a message
+    private static String toMessage(final String message, final String title) {
+        if (message != null && !message.trim().isEmpty()) {
+            return message;
+        }
+        return title != null && !title.trim().isEmpty() ? title : "No message given";
+    }
+
+    private static String toLevel(final String severity) {
+        if (severity == null) {
+            return CheckRunAnnotation.WARNING;
+        }
+        switch (severity.toLowerCase(Locale.ENGLISH)) {
+            case "error":
+                return CheckRunAnnotation.FAILURE;
+            case "info":
+            case "note":
+            case "none":
+                return CheckRunAnnotation.NOTICE;
+            default:
+                return CheckRunAnnotation.WARNING;
+        }
+    }
+}
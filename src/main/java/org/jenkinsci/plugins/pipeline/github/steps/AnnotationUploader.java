@@ -0,0 +1,63 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.jenkinsci.plugins.pipeline.github.client.CheckRunAnnotation;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedChecksService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers at most one batch of annotations, sending each batch as soon as it's full.
+ *
+ * @author Aaron Whiteside
+ */
+final class AnnotationUploader implements AnnotationReportFormat.AnnotationSink {
+
+    private final ExtendedChecksService checksService;
+    private final IRepositoryIdProvider repository;
+    private final long checkRunId;
+    private final String title;
+    private final String summary;
+    private final List<CheckRunAnnotation> batch = new ArrayList<>(ExtendedChecksService.MAX_ANNOTATIONS);
+    private int count;
+    private int requests;
+
+    AnnotationUploader(final ExtendedChecksService checksService,
+                       final IRepositoryIdProvider repository,
+                       final long checkRunId,
+                       final String title,
+                       final String summary) {
+        this.checksService = checksService;
+        this.repository = repository;
+        this.checkRunId = checkRunId;
+        this.title = title;
+        this.summary = summary;
+    }
+
+    @Override
+    public void accept(final CheckRunAnnotation annotation) throws IOException {
+        batch.add(annotation);
+        count++;
+        if (batch.size() == ExtendedChecksService.MAX_ANNOTATIONS) {
+            flush();
+        }
+    }
+
+    void flush() throws IOException {
+        if (!batch.isEmpty()) {
+            checksService.addAnnotations(repository, checkRunId, title, summary, batch);
+            batch.clear();
+            requests++;
+        }
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    int getRequests() {
+        return requests;
+    }
+}
@@ -0,0 +1,204 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.GitHubHelper;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedCheckRun;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedChecksService;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Creates a completed check run, optionally annotated with the findings of a report in the workspace.
+ *
+ * The report is streamed from the workspace and its annotations are sent
+ * {@link ExtendedChecksService#MAX_ANNOTATIONS} at a time, so it is never held in memory whatever its size.
+ *
+ * Note: GitHub only allows GitHub Apps to create check runs.
+ *
+ * @author Aaron Whiteside
+ */
+public class GitHubCheckStep extends Step {
+
+    private final String name;
+    private String sha;
+    private String conclusion = "success";
+    private String title;
+    private String summary;
+    private String detailsUrl;
+    private String report;
+    private String format = "checkstyle";
+
+    @DataBoundConstructor
+    public GitHubCheckStep(final String name) {
+        this.name = Objects.requireNonNull(name, "name is a required argument");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    @DataBoundSetter
+    public void setSha(final String sha) {
+        this.sha = sha;
+    }
+
+    public String getConclusion() {
+        return conclusion;
+    }
+
+    @DataBoundSetter
+    public void setConclusion(final String conclusion) {
+        this.conclusion = conclusion;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    @DataBoundSetter
+    public void setTitle(final String title) {
+        this.title = title;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    @DataBoundSetter
+    public void setSummary(final String summary) {
+        this.summary = summary;
+    }
+
+    public String getDetailsUrl() {
+        return detailsUrl;
+    }
+
+    @DataBoundSetter
+    public void setDetailsUrl(final String detailsUrl) {
+        this.detailsUrl = detailsUrl;
+    }
+
+    public String getReport() {
+        return report;
+    }
+
+    @DataBoundSetter
+    public void setReport(final String report) {
+        this.report = report;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    @DataBoundSetter
+    public void setFormat(final String format) {
+        AnnotationReportFormat.of(format);
+        this.format = format;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        return new Execution(this, context);
+    }
+
+    private static class Execution extends GitHubStepExecution<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient GitHubCheckStep step;
+
+        private Execution(final GitHubCheckStep step, final StepContext context) {
+            super(context);
+            this.step = step;
+        }
+
+        @Override
+        protected String run() throws Exception {
+            Run<?, ?> run = getContext().get(Run.class);
+            TaskListener listener = getContext().get(TaskListener.class);
+
+            String sha = step.sha != null ? step.sha : GitHubHelper.getPullRequestHeadRevision(run);
+            if (sha == null) {
+                throw new IllegalStateException("sha is a required argument when the build is not a pull request");
+            }
+            String title = step.title != null ? step.title : step.name;
+            String summary = step.summary != null ? step.summary : "";
+
+            RepositoryId repository = getRepositoryId();
+            ExtendedChecksService checksService = new ExtendedChecksService(getGitHubClient());
+
+            ExtendedCheckRun checkRun = checksService.createCheckRun(
+                    repository, step.name, sha, "in_progress", step.detailsUrl);
+
+            try {
+                if (step.report != null) {
+                    FilePath workspace = getContext().get(FilePath.class);
+                    if (workspace == null) {
+                        throw new IllegalStateException("A workspace is required to read " + step.report);
+                    }
+                    AnnotationUploader uploader = new AnnotationUploader(
+                            checksService, repository, checkRun.getId(), title, summary);
+                    try (InputStream in = workspace.child(step.report).read()) {
+                        AnnotationReportFormat.of(step.format).parse(in, workspace.getRemote(), uploader);
+                    }
+                    uploader.flush();
+                    listener.getLogger().println("Added " + uploader.getCount() + " annotations to check run "
+                            + step.name + " in " + uploader.getRequests() + " requests");
+                }
+
+                checkRun = checksService.completeCheckRun(
+                        repository, checkRun.getId(), step.conclusion, title, summary);
+                return checkRun.getHtmlUrl();
+            } catch (final Exception e) {
+                // never leave the check run in progress, a required check would block the pull request for good
+                try {
+                    checksService.completeCheckRun(repository, checkRun.getId(), "failure", title,
+                            "Unable to complete the check run: " + e.getMessage());
+                } catch (final Exception suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            // a workspace is only needed when reading a report
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "githubCheck";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Create a GitHub check run";
+        }
+    }
+}
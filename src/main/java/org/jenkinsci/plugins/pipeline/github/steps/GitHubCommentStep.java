@@ -0,0 +1,102 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.eclipse.egit.github.core.Comment;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedIssueService;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Adds a comment to the build's pull request, or edits an existing one, and returns the comment's id.
+ *
+ * @author Aaron Whiteside
+ * @see org.jenkinsci.plugins.pipeline.github.PullRequestGroovyObject#comment(String)
+ */
+public class GitHubCommentStep extends Step {
+
+    private final String body;
+    private long commentId;
+
+    @DataBoundConstructor
+    public GitHubCommentStep(final String body) {
+        this.body = Objects.requireNonNull(body, "body is a required argument");
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public long getCommentId() {
+        return commentId;
+    }
+
+    /**
+     * @param commentId the comment to edit, rather than adding a new one
+     */
+    @DataBoundSetter
+    public void setCommentId(final long commentId) {
+        this.commentId = commentId;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        return new Execution(context, body, commentId);
+    }
+
+    private static class Execution extends GitHubStepExecution<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final String body;
+        private final long commentId;
+
+        private Execution(final StepContext context, final String body, final long commentId) {
+            super(context);
+            this.body = body;
+            this.commentId = commentId;
+        }
+
+        @Override
+        protected Long run() throws Exception {
+            ExtendedIssueService issueService = new ExtendedIssueService(getGitHubClient());
+            if (commentId > 0) {
+                Comment comment = new Comment();
+                comment.setId(commentId);
+                comment.setBody(body);
+                return issueService.editComment(getRepositoryId(), comment).getId();
+            }
+            return issueService.createComment(getRepositoryId(), getPullRequestNumber(), body).getId();
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "githubComment";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Comment on a GitHub pull request";
+        }
+    }
+}
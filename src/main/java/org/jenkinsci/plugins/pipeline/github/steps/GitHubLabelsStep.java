@@ -0,0 +1,129 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedIssueService;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Sets, adds or removes labels of the build's pull request, making only the calls needed, and returns the
+ * resulting labels.
+ *
+ * @author Aaron Whiteside
+ * @see ExtendedIssueService#synchronizeLabels
+ */
+public class GitHubLabelsStep extends Step {
+
+    private final List<String> labels;
+    private String mode = "set";
+
+    @DataBoundConstructor
+    public GitHubLabelsStep(final List<String> labels) {
+        this.labels = new ArrayList<>(Objects.requireNonNull(labels, "labels is a required argument"));
+    }
+
+    public List<String> getLabels() {
+        return labels;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * @param mode set (the default), add or remove
+     */
+    @DataBoundSetter
+    public void setMode(final String mode) {
+        String normalized = mode.toLowerCase(Locale.ENGLISH);
+        if (!Arrays.asList("set", "add", "remove").contains(normalized)) {
+            throw new IllegalArgumentException("mode must be one of set, add or remove");
+        }
+        this.mode = normalized;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        return new Execution(context, labels, mode);
+    }
+
+    private static class Execution extends GitHubStepExecution<List<String>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> labels;
+        private final String mode;
+
+        private Execution(final StepContext context, final List<String> labels, final String mode) {
+            super(context);
+            this.labels = labels;
+            this.mode = mode;
+        }
+
+        @Override
+        protected List<String> run() throws Exception {
+            ExtendedIssueService issueService = new ExtendedIssueService(getGitHubClient());
+            RepositoryId repository = getRepositoryId();
+            int number = getPullRequestNumber();
+
+            List<String> current = StreamSupport
+                    .stream(issueService.getLabels(repository, number).spliterator(), false)
+                    .flatMap(Collection::stream)
+                    .map(Label::getName)
+                    .collect(toList());
+
+            Set<String> desired = new LinkedHashSet<>();
+            if ("set".equals(mode)) {
+                desired.addAll(labels);
+            } else if ("add".equals(mode)) {
+                desired.addAll(current);
+                desired.addAll(labels);
+            } else {
+                desired.addAll(current);
+                desired.removeAll(labels);
+            }
+            return issueService.synchronizeLabels(repository, number, current, desired);
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "githubLabels";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Change the labels of a GitHub pull request";
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedMergeStatus;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedPullRequestService;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Merges the build's pull request and returns the merge commit's SHA.
+ *
+ * @author Aaron Whiteside
+ * @see org.jenkinsci.plugins.pipeline.github.PullRequestGroovyObject#merge(String, String, String, String)
+ */
+public class GitHubMergeStep extends Step {
+
+    private String commitTitle;
+    private String commitMessage;
+    private String sha;
+    private String mergeMethod;
+
+    @DataBoundConstructor
+    public GitHubMergeStep() {
+    }
+
+    public String getCommitTitle() {
+        return commitTitle;
+    }
+
+    @DataBoundSetter
+    public void setCommitTitle(final String commitTitle) {
+        this.commitTitle = commitTitle;
+    }
+
+    public String getCommitMessage() {
+        return commitMessage;
+    }
+
+    @DataBoundSetter
+    public void setCommitMessage(final String commitMessage) {
+        this.commitMessage = commitMessage;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    /**
+     * @param sha the head SHA the pull request must still be at for the merge to succeed
+     */
+    @DataBoundSetter
+    public void setSha(final String sha) {
+        this.sha = sha;
+    }
+
+    public String getMergeMethod() {
+        return mergeMethod;
+    }
+
+    /**
+     * @param mergeMethod merge, squash or rebase
+     */
+    @DataBoundSetter
+    public void setMergeMethod(final String mergeMethod) {
+        this.mergeMethod = mergeMethod;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        return new Execution(context, this);
+    }
+
+    private static class Execution extends GitHubStepExecution<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final String commitTitle;
+        private final String commitMessage;
+        private final String sha;
+        private final String mergeMethod;
+
+        private Execution(final StepContext context, final GitHubMergeStep step) {
+            super(context);
+            this.commitTitle = step.commitTitle;
+            this.commitMessage = step.commitMessage;
+            this.sha = step.sha;
+            this.mergeMethod = step.mergeMethod;
+        }
+
+        @Override
+        protected String run() throws Exception {
+            ExtendedMergeStatus status = new ExtendedPullRequestService(getGitHubClient()).merge(
+                    getRepositoryId(), getPullRequestNumber(), commitTitle, commitMessage, sha, mergeMethod);
+            if (!status.isMerged()) {
+                throw new IllegalStateException(status.getMessage());
+            }
+            return status.getSha();
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "githubMerge";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Merge a GitHub pull request";
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.eclipse.egit.github.core.CommitStatus;
+import org.jenkinsci.plugins.pipeline.github.GitHubHelper;
+import org.jenkinsci.plugins.pipeline.github.client.CommitStatusPublisher;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedCommitService;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Sets a commit status on the build's pull request head, or the given sha.
+ *
+ * The status is handed to {@link CommitStatusPublisher}, exactly as for {@code pullRequest.createStatus(...)}:
+ * a status identical to the last one requested for its context is not sent again, and the step completes only
+ * once GitHub has answered, so a status GitHub rejects fails the step.
+ *
+ * @author Aaron Whiteside
+ */
+public class GitHubStatusStep extends Step {
+
+    private final String status;
+    private String context;
+    private String description;
+    private String targetUrl;
+    private String sha;
+
+    @DataBoundConstructor
+    public GitHubStatusStep(final String status) {
+        this.status = Objects.requireNonNull(status, "status is a required argument");
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    @DataBoundSetter
+    public void setContext(final String context) {
+        this.context = context;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    @DataBoundSetter
+    public void setDescription(final String description) {
+        this.description = description;
+    }
+
+    public String getTargetUrl() {
+        return targetUrl;
+    }
+
+    @DataBoundSetter
+    public void setTargetUrl(final String targetUrl) {
+        this.targetUrl = targetUrl;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    @DataBoundSetter
+    public void setSha(final String sha) {
+        this.sha = sha;
+    }
+
+    @Override
+    public StepExecution start(final StepContext stepContext) throws Exception {
+        CommitStatus commitStatus = new CommitStatus();
+        commitStatus.setState(status);
+        commitStatus.setContext(context);
+        commitStatus.setDescription(description);
+        commitStatus.setTargetUrl(targetUrl);
+        return new Execution(stepContext, commitStatus, sha);
+    }
+
+    private static class Execution extends GitHubStepExecution<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final CommitStatus commitStatus;
+        private final String sha;
+
+        private Execution(final StepContext context, final CommitStatus commitStatus, final String sha) {
+            super(context);
+            this.commitStatus = commitStatus;
+            this.sha = sha;
+        }
+
+        @Override
+        protected Void run() throws Exception {
+            String commit = sha != null ? sha : GitHubHelper.getPullRequestHeadRevision(getContext().get(Run.class));
+            if (commit == null) {
+                throw new IllegalStateException("sha is a required argument when the build is not a pull request");
+            }
+            // blocks until GitHub has answered, throwing if it refused the status
+            CommitStatusPublisher.publish(
+                    new ExtendedCommitService(getGitHubClient()), getRepositoryId(), commit, commitStatus);
+            return null;
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "githubStatus";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Set a GitHub commit status";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.model.Job;
+import hudson.model.Run;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.GitHubHelper;
+import org.jenkinsci.plugins.pipeline.github.client.BackgroundThreadFactory;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedGitHubClient;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a step's GitHub calls on a bounded, controller wide pool and resumes the program once they complete,
+ * so the CPS VM thread is never blocked and parallel branches can overlap their GitHub I/O.
+ *
+ * GitHub calls are not necessarily idempotent, so an execution interrupted by a restart fails rather than
+ * being retried. The step's context is completed once, by whichever of the task, {@link #stop(Throwable)} or
+ * {@link #onResume()} gets there first.
+ *
+ * @author Aaron Whiteside
+ */
+public abstract class GitHubStepExecution<T> extends StepExecution {
+    private static final long serialVersionUID = 1L;
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(
+            Integer.getInteger(GitHubStepExecution.class.getName() + ".threads", 8),
+            new BackgroundThreadFactory("GitHub step"));
+
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private transient volatile Future<?> task;
+
+    protected GitHubStepExecution(final StepContext context) {
+        super(context);
+    }
+
+    /**
+     * Does the step's work, off the CPS VM thread.
+     */
+    protected abstract T run() throws Exception;
+
+    @Override
+    public boolean start() throws Exception {
+        task = executor.submit(() -> {
+            T result;
+            try {
+                result = run();
+            } catch (final Throwable t) {
+                fail(t);
+                return;
+            }
+            if (completed.compareAndSet(false, true)) {
+                getContext().onSuccess(result);
+            }
+        });
+        return false;
+    }
+
+    @Override
+    public void stop(@Nonnull final Throwable cause) throws Exception {
+        Future<?> current = task;
+        if (current != null) {
+            current.cancel(true);
+        }
+        fail(cause);
+    }
+
+    @Override
+    public void onResume() {
+        fail(new IOException(
+                "Jenkins was restarted while this step was running, its GitHub changes may or may not have been made"));
+    }
+
+    // a cancelled task may still finish, or fail on being interrupted, after the step was stopped
+    private void fail(final Throwable cause) {
+        if (completed.compareAndSet(false, true)) {
+            getContext().onFailure(cause);
+        }
+    }
+
+    protected Job<?, ?> getJob() throws IOException, InterruptedException {
+        return getContext().get(Run.class).getParent();
+    }
+
+    protected ExtendedGitHubClient getGitHubClient() throws IOException, InterruptedException {
+        return GitHubHelper.getGitHubClient(getJob());
+    }
+
+    protected RepositoryId getRepositoryId() throws IOException, InterruptedException {
+        return GitHubHelper.getRepositoryId(getJob());
+    }
+
+    protected int getPullRequestNumber() throws Exception {
+        return GitHubHelper.getPullRequest(getJob()).getNumber();
+    }
+}
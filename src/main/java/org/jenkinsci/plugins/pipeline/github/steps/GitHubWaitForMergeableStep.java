@@ -0,0 +1,111 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.GitHubHelper;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedPullRequest;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedPullRequestService;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Waits until GitHub has worked out whether the build's pull request can be merged, and returns whether it can.
+ *
+ * @author Aaron Whiteside
+ */
+public class GitHubWaitForMergeableStep extends Step {
+
+    private int timeout = 600;
+
+    @DataBoundConstructor
+    public GitHubWaitForMergeableStep() {
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @param timeout in seconds
+     */
+    @DataBoundSetter
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public StepExecution start(final StepContext context) throws Exception {
+        Job<?, ?> job = context.get(Run.class).getParent();
+        return new Execution(context, timeout,
+                GitHubHelper.getRepositoryId(job), GitHubHelper.getPullRequest(job).getNumber());
+    }
+
+    private static class Execution extends WaitStepExecution<Boolean> {
+        private static final long serialVersionUID = 1L;
+
+        private final RepositoryId repository;
+        private final int number;
+
+        private Execution(final StepContext context,
+                          final long timeout,
+                          final RepositoryId repository,
+                          final int number) {
+            super(context, timeout);
+            this.repository = repository;
+            this.number = number;
+        }
+
+        @Override
+        protected String getKey() {
+            return pullRequestKey(repository.generateId(), number);
+        }
+
+        @Override
+        protected Boolean check() throws Exception {
+            Job<?, ?> job = getContext().get(Run.class).getParent();
+            ExtendedPullRequest pullRequest = new ExtendedPullRequestService(GitHubHelper.getGitHubClient(job))
+                    .getPullRequest(repository, number);
+            if (pullRequest.getMergeableState() == null || "unknown".equals(pullRequest.getMergeableState())) {
+                return null;
+            }
+            return pullRequest.isMergeable();
+        }
+
+        @Override
+        protected String describe() {
+            return "pull request " + number + " to become mergeable";
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "githubWaitForMergeable";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Wait until GitHub knows whether the pull request can be merged";
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import org.eclipse.egit.github.core.CommitStatus;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.GitHubHelper;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedCombinedStatus;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedCommitService;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Waits until a status context of a commit reaches the wanted state, or settles on another one.
+ *
+ * Returns the context's final state.
+ *
+ * @author Aaron Whiteside
+ */
+public class GitHubWaitForStatusStep extends Step {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final String context;
+    private String state = "success";
+    private String sha;
+    private int timeout = 600;
+
+    @DataBoundConstructor
+    public GitHubWaitForStatusStep(final String context) {
+        this.context = Objects.requireNonNull(context, "context is a required argument");
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    @DataBoundSetter
+    public void setState(final String state) {
+        this.state = state;
+    }
+
+    public String getSha() {
+        return sha;
+    }
+
+    @DataBoundSetter
+    public void setSha(final String sha) {
+        this.sha = sha;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @param timeout in seconds
+     */
+    @DataBoundSetter
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public StepExecution start(final StepContext stepContext) throws Exception {
+        Run<?, ?> run = stepContext.get(Run.class);
+        String commit = sha != null ? sha : GitHubHelper.getPullRequestHeadRevision(run);
+        if (commit == null) {
+            throw new IllegalStateException("sha is a required argument when the build is not a pull request");
+        }
+        return new Execution(stepContext, timeout, GitHubHelper.getRepositoryId(run.getParent()),
+                commit, context, state);
+    }
+
+    private static class Execution extends WaitStepExecution<String> {
+        private static final long serialVersionUID = 1L;
+
+        private final RepositoryId repository;
+        private final String sha;
+        private final String context;
+        private final String state;
+
+        private Execution(final StepContext stepContext,
+                          final long timeout,
+                          final RepositoryId repository,
+                          final String sha,
+                          final String context,
+                          final String state) {
+            super(stepContext, timeout);
+            this.repository = repository;
+            this.sha = sha;
+            this.context = context;
+            this.state = state;
+        }
+
+        @Override
+        protected String getKey() {
+            return commitKey(repository.generateId(), sha);
+        }
+
+        @Override
+        protected String check() throws Exception {
+            ExtendedCommitService commitService = new ExtendedCommitService(
+                    GitHubHelper.getGitHubClient(getContext().get(Run.class).getParent()));
+
+            // read past CombinedStatusCache, polls rely on the client's conditional requests instead
+            for (int page = 1; ; page++) {
+                ExtendedCombinedStatus combinedStatus =
+                        commitService.getCombinedStatus(repository, sha, page, PAGE_SIZE);
+                for (final CommitStatus status : combinedStatus.getStatuses()) {
+                    if (context.equals(status.getContext())) {
+                        String current = status.getState();
+                        return current.equals(state) || !CommitStatus.STATE_PENDING.equals(current) ? current : null;
+                    }
+                }
+                if (combinedStatus.getStatuses().size() < PAGE_SIZE) {
+                    return null;
+                }
+            }
+        }
+
+        @Override
+        protected String describe() {
+            return "status " + context + " of " + sha + " to become " + state;
+        }
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return new HashSet<>(Arrays.asList(Run.class, TaskListener.class));
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "githubWaitForStatus";
+        }
+
+        @Nonnull
+        @Override
+        public String getDisplayName() {
+            return "Wait for a GitHub commit status";
+        }
+    }
+}
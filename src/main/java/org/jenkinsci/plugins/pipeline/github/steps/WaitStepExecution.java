@@ -0,0 +1,226 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import hudson.model.TaskListener;
+import org.eclipse.egit.github.core.client.RequestException;
+import org.jenkinsci.plugins.pipeline.github.client.BackgroundThreadFactory;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits, without holding the CPS VM thread or an executor, until {@link #check()} returns a result.
+ *
+ * Checks run on a small background pool. They are scheduled with exponential backoff, and run straight away
+ * whenever a webhook event for the execution's {@link #getKey() key} arrives, see {@link #wake(String)}.
+ *
+ * A check that fails for a reason that may pass, a network error, a server error or the rate limit, is retried
+ * at the next poll and reported in the build's log. Any other failure, such as bad credentials or a pull
+ * request that doesn't exist, fails the step straight away, see {@link #isRetryable(Exception)}.
+ *
+ * @author Aaron Whiteside
+ */
+public abstract class WaitStepExecution<T> extends StepExecution {
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(WaitStepExecution.class);
+
+    private static final String PREFIX = WaitStepExecution.class.getName();
+
+    private static final long INITIAL_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(
+            Long.getLong(PREFIX + ".initialIntervalSeconds", 5L));
+
+    private static final long MAX_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(
+            Long.getLong(PREFIX + ".maxIntervalSeconds", 300L));
+
+    private static final ScheduledExecutorService executor = Executors.newScheduledThreadPool(
+            Integer.getInteger(PREFIX + ".threads", 2), new BackgroundThreadFactory("GitHub wait step"));
+
+    private static final Map<String, Set<WaitStepExecution<?>>> waiting = new ConcurrentHashMap<>();
+
+    private final long deadline;
+    private long intervalMillis = INITIAL_INTERVAL_MILLIS;
+    private boolean done;
+    private transient ScheduledFuture<?> next;
+
+    WaitStepExecution(final StepContext context, final long timeoutSeconds) {
+        super(context);
+        this.deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
+
+    /**
+     * @return the key of the webhook events that should trigger an immediate check
+     */
+    protected abstract String getKey();
+
+    /**
+     * @return the step's result, or null to keep waiting
+     */
+    protected abstract T check() throws Exception;
+
+    protected abstract String describe();
+
+    /**
+     * @return whether a check that failed with the exception may succeed if tried again
+     */
+    protected boolean isRetryable(final Exception e) {
+        if (e instanceof RequestException) {
+            RequestException requestException = (RequestException) e;
+            int status = requestException.getStatus();
+            String message = requestException.getMessage();
+            return status >= 500 || status == 429
+                    || status == 403 && message != null && message.toLowerCase(Locale.ENGLISH).contains("rate limit");
+        }
+        // anything else that went wrong talking to GitHub, a timeout or a dropped connection
+        return e instanceof IOException;
+    }
+
+    @Override
+    public boolean start() throws Exception {
+        register();
+        schedule(0);
+        return false;
+    }
+
+    @Override
+    public void onResume() {
+        register();
+        schedule(0);
+    }
+
+    @Override
+    public void stop(@Nonnull final Throwable cause) throws Exception {
+        if (finish()) {
+            getContext().onFailure(cause);
+        }
+    }
+
+    /**
+     * Checks every execution waiting on the key now, rather than at its next scheduled poll.
+     */
+    public static void wake(final String key) {
+        Set<WaitStepExecution<?>> executions = waiting.get(key);
+        if (executions != null) {
+            for (final WaitStepExecution<?> execution : executions) {
+                synchronized (execution) {
+                    // something is happening, so poll eagerly again
+                    execution.intervalMillis = INITIAL_INTERVAL_MILLIS;
+                }
+                execution.schedule(0);
+            }
+        }
+    }
+
+    /**
+     * @param repository the repository's full name, owner/name
+     */
+    public static String pullRequestKey(final String repository, final int number) {
+        return repository.toLowerCase(Locale.ENGLISH) + '#' + number;
+    }
+
+    /**
+     * @param repository the repository's full name, owner/name
+     */
+    public static String commitKey(final String repository, final String sha) {
+        return repository.toLowerCase(Locale.ENGLISH) + '@' + sha;
+    }
+
+    private void register() {
+        waiting.computeIfAbsent(getKey(), k -> ConcurrentHashMap.newKeySet()).add(this);
+    }
+
+    private synchronized void schedule(final long delayMillis) {
+        if (done) {
+            return;
+        }
+        if (next != null) {
+            next.cancel(false);
+        }
+        next = executor.schedule(this::poll, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void poll() {
+        synchronized (this) {
+            if (done) {
+                return;
+            }
+        }
+        try {
+            T result = check();
+            if (result != null) {
+                if (finish()) {
+                    getContext().onSuccess(result);
+                }
+                return;
+            }
+        } catch (final Exception e) {
+            if (!isRetryable(e)) {
+                if (finish()) {
+                    getContext().onFailure(e);
+                }
+                return;
+            }
+            // treated like an unsatisfied check, the next poll may succeed
+            LOG.warn("Check failed while waiting for {}, retrying: {}", describe(), e.toString());
+            LOG.debug("Check failure", e);
+            printRetry(e);
+        }
+
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            if (finish()) {
+                getContext().onFailure(new TimeoutException("Timed out waiting for " + describe()));
+            }
+            return;
+        }
+        long delay;
+        synchronized (this) {
+            delay = Math.min(intervalMillis, remaining);
+            intervalMillis = Math.min(intervalMillis * 2, MAX_INTERVAL_MILLIS);
+        }
+        schedule(delay);
+    }
+
+    private void printRetry(final Exception e) {
+        try {
+            TaskListener listener = getContext().get(TaskListener.class);
+            if (listener != null) {
+                listener.getLogger().println("Check failed while waiting for " + describe() + ", retrying: " + e);
+            }
+        } catch (final IOException | InterruptedException ignored) {
+            // the warning above will have to do
+        }
+    }
+
+    /**
+     * @return true if this call finished the execution
+     */
+    private boolean finish() {
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            done = true;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+        waiting.computeIfPresent(getKey(), (k, executions) -> {
+            executions.remove(this);
+            return executions.isEmpty() ? null : executions;
+        });
+        return true;
+    }
+}
@@ -0,0 +1,173 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the time spent matching one event's comment against its job's trigger patterns.
+ *
+ * Matching is aborted once the handling thread has used up its CPU budget or the wall clock timeout has passed,
+ * whichever comes first. Both are checked every few thousand units of work, so a pattern that backtracks
+ * badly stops soon after going over.
+ *
+ * Triggers that opted in to linear-time matching get a tight budget, 250ms of CPU time or 1s in total. The
+ * others are only protected from runaway backtracking, with a budget generous enough for any pattern that
+ * matched before budgets existed, 10s of CPU time or 30s in total.
+ *
+ * @author Aaron Whiteside
+ */
+public final class CommentMatchBudget {
+
+    private static final String PREFIX = CommentMatchBudget.class.getName();
+
+    private static final long CPU_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong(PREFIX + ".cpuBudgetMillis", 250L));
+
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong(PREFIX + ".timeoutMillis", 1000L));
+
+    private static final long BACKTRACKING_CPU_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong(PREFIX + ".backtrackingCpuBudgetMillis", 10_000L));
+
+    private static final long BACKTRACKING_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong(PREFIX + ".backtrackingTimeoutMillis", 30_000L));
+
+    private static final int CHECK_INTERVAL = 4096;
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private static final AtomicLong evaluations = new AtomicLong();
+    private static final AtomicLong cpuAborts = new AtomicLong();
+    private static final AtomicLong timeoutAborts = new AtomicLong();
+
+    private final long cpuBudgetNanos;
+    private final long timeoutNanos;
+    private final long start;
+    // read at the first check rather than up front, most comments are matched long before one
+    private long cpuStart = -1;
+    private int work;
+    private long spent;
+
+    private CommentMatchBudget(final long cpuBudgetNanos, final long timeoutNanos) {
+        this.cpuBudgetNanos = cpuBudgetNanos;
+        this.timeoutNanos = timeoutNanos;
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Starts the budget of matching one comment against linear-time patterns, on the calling thread.
+     */
+    static CommentMatchBudget start() {
+        evaluations.incrementAndGet();
+        return new CommentMatchBudget(CPU_BUDGET_NANOS, TIMEOUT_NANOS);
+    }
+
+    /**
+     * Starts the budget of matching one comment against backtracking patterns, on the calling thread.
+     */
+    static CommentMatchBudget startBacktracking() {
+        evaluations.incrementAndGet();
+        return new CommentMatchBudget(BACKTRACKING_CPU_BUDGET_NANOS, BACKTRACKING_TIMEOUT_NANOS);
+    }
+
+    /**
+     * Accounts for {@code units} of work, throwing once the budget or timeout has been exceeded.
+     */
+    void spend(final int units) {
+        work += units;
+        spent += units;
+        if (work < CHECK_INTERVAL) {
+            return;
+        }
+        work = 0;
+        if (System.nanoTime() - start > timeoutNanos) {
+            timeoutAborts.incrementAndGet();
+            throw new Exceeded("Comment matching timed out after "
+                    + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms");
+        }
+        if (cpuStart == -1) {
+            cpuStart = cpuTime();
+        } else if (cpuTime() - cpuStart > cpuBudgetNanos) {
+            cpuAborts.incrementAndGet();
+            throw new Exceeded("Comment matching used more than "
+                    + TimeUnit.NANOSECONDS.toMillis(cpuBudgetNanos) + "ms of CPU time");
+        }
+    }
+
+    /**
+     * @return the units of work spent so far
+     */
+    long getSpent() {
+        return spent;
+    }
+
+    private static long cpuTime() {
+        // without CPU time the timeout alone applies
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    public static long getEvaluationCount() {
+        return evaluations.get();
+    }
+
+    /**
+     * @return the number of evaluations aborted for using up their CPU budget
+     */
+    public static long getCpuAbortCount() {
+        return cpuAborts.get();
+    }
+
+    /**
+     * @return the number of evaluations aborted for running past the timeout
+     */
+    public static long getTimeoutAbortCount() {
+        return timeoutAborts.get();
+    }
+
+    /**
+     * Thrown from within matching, the comment is then treated as matching none of the patterns.
+     */
+    static final class Exceeded extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Exceeded(final String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * A comment that spends from the budget on every character java.util.regex reads.
+     */
+    static final class BudgetedCharSequence implements CharSequence {
+        private final CharSequence delegate;
+        private final CommentMatchBudget budget;
+
+        BudgetedCharSequence(final CharSequence delegate, final CommentMatchBudget budget) {
+            this.delegate = delegate;
+            this.budget = budget;
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public char charAt(final int index) {
+            budget.spend(1);
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new BudgetedCharSequence(delegate.subSequence(start, end), budget);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
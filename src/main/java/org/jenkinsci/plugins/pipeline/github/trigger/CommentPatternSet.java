@@ -0,0 +1,80 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches a comment against several patterns, reporting every pattern the whole comment matched.
+ *
+ * Patterns in linear-time mode are compiled together into a {@link LinearPattern}, the others are matched one
+ * after the other. Folding those into a single expression of lookaheads was measured to be slower than matching
+ * each precompiled pattern on its own, at 1, 10 and 100 patterns, see {@code CommentPatternSetBenchmark}.
+ * Each mode spends from its own {@link CommentMatchBudget} per comment.
+ *
+ * @author Aaron Whiteside
+ */
+final class CommentPatternSet {
+
+    private final int size;
+    private final List<Pattern> backtracking = new ArrayList<>();
+    private final int[] backtrackingIndexes;
+    private final LinearPattern linearPattern;
+    private final int[] linearIndexes;
+
+    /**
+     * @param linear the indexes of the patterns to match in linear time
+     * @throws PatternSyntaxException if one of those can't be matched in linear time
+     */
+    CommentPatternSet(final List<Pattern> patterns, final BitSet linear) {
+        this.size = patterns.size();
+
+        List<String> linearRegexes = new ArrayList<>();
+        this.linearIndexes = linear.stream().toArray();
+        for (final int i : linearIndexes) {
+            linearRegexes.add(patterns.get(i).pattern());
+        }
+        this.linearPattern = linearRegexes.isEmpty() ? null : LinearPattern.compile(linearRegexes);
+
+        this.backtrackingIndexes = new int[size - linearIndexes.length];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (!linear.get(i)) {
+                backtrackingIndexes[next++] = i;
+                backtracking.add(patterns.get(i));
+            }
+        }
+    }
+
+    /**
+     * @return the indexes of the patterns the whole comment matched
+     * @throws CommentMatchBudget.Exceeded if matching took too long, none of the patterns can be trusted to
+     *                                     have been matched
+     */
+    BitSet match(final CharSequence comment) {
+        BitSet matched = new BitSet(size);
+        if (linearPattern != null) {
+            BitSet linearMatched = linearPattern.match(comment, CommentMatchBudget.start());
+            for (int i = linearMatched.nextSetBit(0); i >= 0; i = linearMatched.nextSetBit(i + 1)) {
+                matched.set(linearIndexes[i]);
+            }
+        }
+        if (backtracking.isEmpty()) {
+            return matched;
+        }
+        CharSequence budgeted = new CommentMatchBudget.BudgetedCharSequence(comment,
+                CommentMatchBudget.startBacktracking());
+        for (int i = 0; i < backtrackingIndexes.length; i++) {
+            if (backtracking.get(i).matcher(budgeted).matches()) {
+                matched.set(backtrackingIndexes[i]);
+            }
+        }
+        return matched;
+    }
+
+    int size() {
+        return size;
+    }
+}
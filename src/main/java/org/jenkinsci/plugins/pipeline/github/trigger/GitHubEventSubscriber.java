@@ -1,18 +1,29 @@
 package org.jenkinsci.plugins.pipeline.github.trigger;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import hudson.Extension;
 import hudson.model.Item;
 import jenkins.model.Jenkins;
 import jenkins.scm.api.SCMSource;
 import jenkins.scm.api.SCMSourceOwner;
+import org.eclipse.egit.github.core.RepositoryId;
 import org.jenkinsci.plugins.github.extension.GHEventsSubscriber;
 import org.jenkinsci.plugins.github.extension.GHSubscriberEvent;
 import org.jenkinsci.plugins.github_branch_source.GitHubSCMSource;
 import org.jenkinsci.plugins.pipeline.github.GitHubHelper;
+import org.jenkinsci.plugins.pipeline.github.client.CollaboratorPermission;
+import org.jenkinsci.plugins.pipeline.github.client.CollaboratorPermissionCache;
+import org.jenkinsci.plugins.pipeline.github.client.CombinedStatusCache;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedCollaboratorService;
+import org.jenkinsci.plugins.pipeline.github.steps.WaitStepExecution;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import org.kohsuke.github.GHEvent;
 import org.kohsuke.github.GHEventPayload;
-import org.kohsuke.github.GHIssueComment;
 import org.kohsuke.github.GitHub;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,13 +33,19 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Listens for GitHub events.
  *
- * Currently only handles IssueComment events.
+ * Handles IssueComment events, Status events to keep cached combined statuses current, Status and
+ * PullRequest events to wake waiting steps, and Member and Membership events to keep cached collaborator
+ * permissions current.
+ *
+ * Events are handled on the {@link WebhookEventQueue}'s threads, not the thread that delivered them.
  *
  * @author Aaron Whiteside
  */
@@ -64,10 +81,30 @@ public class GitHubEventSubscriber extends GHEventsSubscriber {
     protected void onEvent(final GHSubscriberEvent event) {
         LOG.debug("Received event: {}", event.getGHEvent());
 
+        String key = getOrderingKey(event.getPayload());
+        if (!WebhookEventQueue.submit(key, () -> handleEvent(event))) {
+            LOG.warn("Webhook event queue is full, the {} event for {} is not handled",
+                    event.getGHEvent(), key);
+        }
+    }
+
+    private void handleEvent(final GHSubscriberEvent event) {
         switch (event.getGHEvent()) {
             case ISSUE_COMMENT:
                 handleIssueComment(event);
                 break;
+            case STATUS:
+                handleStatus(event);
+                break;
+            case PULL_REQUEST:
+                handlePullRequest(event);
+                break;
+            case MEMBER:
+                handleMember(event);
+                break;
+            case MEMBERSHIP:
+                handleMembership(event);
+                break;
             default:
                 // no-op
         }
@@ -116,32 +153,54 @@ public class GitHubEventSubscriber extends GHEventsSubscriber {
         if (job == null) {
             LOG.debug("No job found matching key: {}", key);
         } else {
-            Optional<IssueCommentTrigger> matchingTrigger = job.getTriggersJobProperty()
+            List<IssueCommentTrigger> triggers = job.getTriggersJobProperty()
                     .getTriggers()
                     .stream()
                     .filter(t -> t instanceof IssueCommentTrigger)
                     .map(IssueCommentTrigger.class::cast)
-                    .filter(t -> triggerMatches(t, issueCommentEvent.getComment(), job))
-                    .findAny();
+                    .collect(Collectors.toList());
+
+            List<IssueCommentTrigger> matchingTriggers = triggerDescriptor.getMatchingTriggers(
+                    key, triggers, issueCommentEvent.getComment().getBody());
+
+            for (final IssueCommentTrigger trigger : matchingTriggers) {
+                LOG.debug("Job: {}, IssueComment: {} matched Pattern: {}",
+                        job.getFullName(), issueCommentEvent.getComment(), trigger.getCommentPattern());
+            }
 
-            if (matchingTrigger.isPresent()) {
+            if (!matchingTriggers.isEmpty()) {
                 String commentAuthor = issueCommentEvent.getComment().getUserName();
-                boolean authorized = isAuthorized(job, commentAuthor);
+                CollaboratorPermission permission;
+                try {
+                    permission = getPermission(job, commentAuthor);
+                } catch (final IOException e) {
+                    LOG.warn("Job: {}, IssueComment: {}, Unable to look up the permission of Comment Author: {}, " +
+                             "no build is triggered.",
+                            job.getFullName(),
+                            issueCommentEvent.getComment(),
+                            commentAuthor,
+                            e);
+                    return;
+                }
+                Optional<IssueCommentTrigger> authorizedTrigger = matchingTriggers.stream()
+                        .filter(t -> permission.isAtLeast(t.getRequiredPermission()))
+                        .findFirst();
 
-                if (authorized) {
+                if (authorizedTrigger.isPresent()) {
                     job.scheduleBuild(
                             new IssueCommentCause(
                                     issueCommentEvent.getComment().getUserName(),
                                     issueCommentEvent.getComment().getBody(),
-                                    matchingTrigger.get().getCommentPattern()));
+                                    authorizedTrigger.get().getCommentPattern()));
                     LOG.info("Job: {} triggered by IssueComment: {}",
                             job.getFullName(), issueCommentEvent.getComment());
                 } else {
-                    LOG.warn("Job: {}, IssueComment: {}, Comment Author: {} is not a collaborator, " +
+                    LOG.warn("Job: {}, IssueComment: {}, Comment Author: {} only has {} permission, " +
                              "and is therefore not authorized to trigger a build.",
                             job.getFullName(),
                             issueCommentEvent.getComment(),
-                            commentAuthor);
+                            commentAuthor,
+                            permission);
                 }
             } else {
                 LOG.debug("Job: {}, IssueComment: {}, No matching triggers could be found for this comment.",
@@ -150,27 +209,122 @@ public class GitHubEventSubscriber extends GHEventsSubscriber {
         }
     }
 
-    private boolean isAuthorized(final WorkflowJob job, final String commentAuthor) {
-        return GitHubHelper.getCollaborators(job)
-                .stream()
-                .filter(commentAuthor::equals)
-                .findAny()
-                .map(a -> Boolean.TRUE)
-                .orElse(Boolean.FALSE);
+    private void handleStatus(final GHSubscriberEvent event) {
+        try {
+            JsonObject payload = new JsonParser().parse(event.getPayload()).getAsJsonObject();
+            JsonElement sha = payload.get("sha");
+            if (sha != null && sha.isJsonPrimitive()) {
+                CombinedStatusCache.invalidate(sha.getAsString());
+                String repository = getRepositoryFullName(payload);
+                if (repository != null) {
+                    WaitStepExecution.wake(WaitStepExecution.commitKey(repository, sha.getAsString()));
+                }
+            }
+        } catch (final JsonParseException | IllegalStateException e) {
+            LOG.error("Unable to parse the payload of GHSubscriberEvent: {}", event, e);
+        }
     }
 
-    private boolean triggerMatches(final IssueCommentTrigger trigger,
-                                   final GHIssueComment issueComment,
-                                   final WorkflowJob job) {
-        if (trigger.matchesComment(issueComment.getBody())) {
-            LOG.debug("Job: {}, IssueComment: {} matched Pattern: {}",
-                    job.getFullName(), issueComment, trigger.getCommentPattern());
-            return true;
-        } else {
-            LOG.debug("Job: {}, IssueComment: {}, the comment did not match Pattern: {}",
-                    job.getFullName(), issueComment, trigger.getCommentPattern());
+    private void handlePullRequest(final GHSubscriberEvent event) {
+        try {
+            JsonObject payload = new JsonParser().parse(event.getPayload()).getAsJsonObject();
+            JsonElement number = payload.get("number");
+            String repository = getRepositoryFullName(payload);
+            if (number != null && number.isJsonPrimitive() && repository != null) {
+                WaitStepExecution.wake(WaitStepExecution.pullRequestKey(repository, number.getAsInt()));
+            }
+        } catch (final JsonParseException | IllegalStateException | NumberFormatException e) {
+            LOG.error("Unable to parse the payload of GHSubscriberEvent: {}", event, e);
         }
-        return false;
+    }
+
+    private void handleMember(final GHSubscriberEvent event) {
+        try {
+            JsonObject payload = new JsonParser().parse(event.getPayload()).getAsJsonObject();
+            String repository = getRepositoryFullName(payload);
+            String member = getLogin(payload, "member");
+            if (repository != null && member != null) {
+                CollaboratorPermissionCache.invalidate(repository, member);
+            }
+        } catch (final JsonParseException | IllegalStateException e) {
+            LOG.error("Unable to parse the payload of GHSubscriberEvent: {}", event, e);
+        }
+    }
+
+    private void handleMembership(final GHSubscriberEvent event) {
+        try {
+            JsonObject payload = new JsonParser().parse(event.getPayload()).getAsJsonObject();
+            String organization = getLogin(payload, "organization");
+            String member = getLogin(payload, "member");
+            if (organization != null && member != null) {
+                CollaboratorPermissionCache.invalidateOwner(organization, member);
+            }
+        } catch (final JsonParseException | IllegalStateException e) {
+            LOG.error("Unable to parse the payload of GHSubscriberEvent: {}", event, e);
+        }
+    }
+
+    /**
+     * Reads the repository's full name, or the organization's login for organization events, without parsing
+     * the whole payload.
+     */
+    static String getOrderingKey(final String payload) {
+        String organization = null;
+        try (JsonReader reader = new JsonReader(new StringReader(payload))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                String field = "repository".equals(name) ? "full_name" : "organization".equals(name) ? "login" : null;
+                if (field == null || reader.peek() != JsonToken.BEGIN_OBJECT) {
+                    reader.skipValue();
+                    continue;
+                }
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if (field.equals(reader.nextName()) && reader.peek() == JsonToken.STRING) {
+                        String value = reader.nextString();
+                        if ("repository".equals(name)) {
+                            return value;
+                        }
+                        organization = value;
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            }
+        } catch (final IOException | IllegalStateException | JsonParseException e) {
+            LOG.debug("Unable to read the repository of the payload: {}", payload, e);
+        }
+        return organization != null ? organization : "";
+    }
+
+    private static String getLogin(final JsonObject payload, final String property) {
+        JsonElement account = payload.get(property);
+        if (account == null || !account.isJsonObject()) {
+            return null;
+        }
+        JsonElement login = account.getAsJsonObject().get("login");
+        return login != null && login.isJsonPrimitive() ? login.getAsString() : null;
+    }
+
+    private static String getRepositoryFullName(final JsonObject payload) {
+        JsonElement repository = payload.get("repository");
+        if (repository == null || !repository.isJsonObject()) {
+            return null;
+        }
+        JsonElement fullName = repository.getAsJsonObject().get("full_name");
+        return fullName != null && fullName.isJsonPrimitive() ? fullName.getAsString() : null;
+    }
+
+    private CollaboratorPermission getPermission(final WorkflowJob job, final String commentAuthor)
+            throws IOException {
+        RepositoryId repository = GitHubHelper.getRepositoryId(job);
+        if (repository == null) {
+            throw new IOException("Unable to find the GitHub repository of " + job.getFullName());
+        }
+        return CollaboratorPermissionCache.getPermission(
+                new ExtendedCollaboratorService(GitHubHelper.getGitHubClient(job)), repository, commentAuthor);
     }
 
     @Override
@@ -179,6 +333,10 @@ public class GitHubEventSubscriber extends GHEventsSubscriber {
 //        events.add(GHEvent.PULL_REQUEST_REVIEW_COMMENT);
 //        events.add(GHEvent.COMMIT_COMMENT);
         events.add(GHEvent.ISSUE_COMMENT);
+        events.add(GHEvent.STATUS);
+        events.add(GHEvent.PULL_REQUEST);
+        events.add(GHEvent.MEMBER);
+        events.add(GHEvent.MEMBERSHIP);
         return Collections.unmodifiableSet(events);
     }
 }
@@ -10,15 +10,22 @@ import jenkins.scm.api.SCMSource;
 import org.jenkinsci.Symbol;
 import org.jenkinsci.plugins.github_branch_source.GitHubSCMSource;
 import org.jenkinsci.plugins.github_branch_source.PullRequestSCMHead;
+import org.jenkinsci.plugins.pipeline.github.client.CollaboratorPermission;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /**
  * An IssueCommentTrigger, to be used from pipeline scripts only.
@@ -31,16 +38,70 @@ import java.util.regex.Pattern;
 public class IssueCommentTrigger extends Trigger<WorkflowJob> {
     private static final Logger LOG = LoggerFactory.getLogger(IssueCommentTrigger.class);
 
+    private static final CollaboratorPermission DEFAULT_MINIMUM_PERMISSION = defaultMinimumPermission();
+
     private final String commentPattern;
+    private boolean linearTime;
+    private String minimumPermission;
+    private transient Pattern pattern;
 
     @DataBoundConstructor
     public IssueCommentTrigger(@Nonnull final String commentPattern) {
         this.commentPattern = commentPattern;
     }
 
+    /**
+     * Matches the pattern in time linear to the comment's length, so that it can't backtrack badly.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the pattern uses syntax linear-time matching doesn't support
+     */
+    @DataBoundSetter
+    public void setLinearTime(final boolean linearTime) {
+        if (linearTime) {
+            LinearPattern.compile(Collections.singletonList(commentPattern));
+        }
+        this.linearTime = linearTime;
+    }
+
+    public boolean isLinearTime() {
+        return linearTime;
+    }
+
+    /**
+     * The permission a comment's author needs on the repository to trigger a build, one of read, triage, write,
+     * maintain or admin.
+     */
+    @DataBoundSetter
+    public void setMinimumPermission(final String minimumPermission) {
+        if (minimumPermission != null) {
+            CollaboratorPermission.of(minimumPermission);
+        }
+        this.minimumPermission = minimumPermission;
+    }
+
+    public String getMinimumPermission() {
+        return minimumPermission;
+    }
+
+    private static CollaboratorPermission defaultMinimumPermission() {
+        String property = IssueCommentTrigger.class.getName() + ".minimumPermission";
+        String value = System.getProperty(property, "write");
+        try {
+            return CollaboratorPermission.of(value);
+        } catch (final IllegalArgumentException e) {
+            LOG.warn("Ignoring unknown permission {}={}", property, value);
+            return CollaboratorPermission.WRITE;
+        }
+    }
+
+    CollaboratorPermission getRequiredPermission() {
+        return minimumPermission != null ? CollaboratorPermission.of(minimumPermission) : DEFAULT_MINIMUM_PERMISSION;
+    }
+
     @Override
     public void start(final WorkflowJob project, final boolean newInstance) {
         super.start(project, newInstance);
+        pattern = Pattern.compile(commentPattern);
         // we only care about pull requests
         if (SCMHead.HeadByItem.findHead(project) instanceof PullRequestSCMHead) {
             DescriptorImpl.jobs.put(getKey(project), project);
@@ -50,7 +111,9 @@ public class IssueCommentTrigger extends Trigger<WorkflowJob> {
     @Override
     public void stop() {
         if (SCMHead.HeadByItem.findHead(job) instanceof PullRequestSCMHead) {
-            DescriptorImpl.jobs.put(getKey(job), job);
+            String key = getKey(job);
+            DescriptorImpl.jobs.remove(key);
+            DescriptorImpl.patterns.remove(key);
         }
     }
 
@@ -69,16 +132,19 @@ public class IssueCommentTrigger extends Trigger<WorkflowJob> {
         return commentPattern;
     }
 
-    boolean matchesComment(final String comment) {
-        return Pattern.compile(commentPattern)
-                .matcher(comment)
-                .matches();
+    Pattern getPattern() {
+        // start() may not have been called yet
+        if (pattern == null) {
+            pattern = Pattern.compile(commentPattern);
+        }
+        return pattern;
     }
 
     @Symbol("issueCommentTrigger")
     @Extension
     public static class DescriptorImpl extends TriggerDescriptor {
         private transient static final Map<String, WorkflowJob> jobs = new ConcurrentHashMap<>();
+        private transient static final Map<String, JobPatterns> patterns = new ConcurrentHashMap<>();
 
         @Override
         public boolean isApplicable(final Item item) {
@@ -88,6 +154,64 @@ public class IssueCommentTrigger extends Trigger<WorkflowJob> {
         public WorkflowJob getJob(final String key) {
             return jobs.get(key);
         }
+
+        /**
+         * Returns the job's triggers whose pattern the whole comment matches, in declaration order.
+         */
+        List<IssueCommentTrigger> getMatchingTriggers(final String key,
+                                                      final List<IssueCommentTrigger> triggers,
+                                                      final String comment) {
+            JobPatterns jobPatterns = patterns.get(key);
+            if (jobPatterns == null || !jobPatterns.isFor(triggers)) {
+                jobPatterns = new JobPatterns(triggers);
+                patterns.put(key, jobPatterns);
+            }
+
+            BitSet matched;
+            try {
+                matched = jobPatterns.patternSet.match(comment);
+            } catch (final CommentMatchBudget.Exceeded e) {
+                LOG.warn("Pull request: {}, {}, the comment is treated as matching no triggers.",
+                        key, e.getMessage());
+                return Collections.emptyList();
+            }
+            List<IssueCommentTrigger> result = new ArrayList<>(matched.cardinality());
+            for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+                result.add(jobPatterns.triggers.get(i));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A job's triggers and their compiled patterns, rebuilt whenever the job's triggers are replaced.
+     */
+    private static final class JobPatterns {
+        private final List<IssueCommentTrigger> triggers;
+        private final CommentPatternSet patternSet;
+
+        private JobPatterns(final List<IssueCommentTrigger> triggers) {
+            this.triggers = new ArrayList<>(triggers);
+            BitSet linear = new BitSet(triggers.size());
+            for (int i = 0; i < triggers.size(); i++) {
+                linear.set(i, triggers.get(i).isLinearTime());
+            }
+            this.patternSet = new CommentPatternSet(triggers.stream()
+                    .map(IssueCommentTrigger::getPattern)
+                    .collect(Collectors.toList()), linear);
+        }
+
+        private boolean isFor(final List<IssueCommentTrigger> other) {
+            if (other.size() != triggers.size()) {
+                return false;
+            }
+            for (int i = 0; i < triggers.size(); i++) {
+                if (other.get(i) != triggers.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
 }
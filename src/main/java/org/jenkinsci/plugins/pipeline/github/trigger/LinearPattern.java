@@ -0,0 +1,868 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Matches comments in linear time, for the subset of java.util.regex syntax that can be run as a finite
+ * automaton, in the manner of RE2.
+ *
+ * The patterns are compiled together into one program that is simulated breadth first, without backtracking,
+ * so all of them are matched in a single pass over the comment, in time proportional to the comment's length
+ * times the program's size whatever the patterns are. As with {@link java.util.regex.Matcher#matches()} a
+ * pattern has to match the whole comment.
+ *
+ * Back references, lookaround, atomic groups, possessive quantifiers, {@code \Q} quoting, {@code \G} and
+ * Unicode property classes can't be supported, and neither can the {@code x}, {@code d}, {@code U} and
+ * {@code c} flags. Patterns using them are rejected when compiled.
+ *
+ * @author Aaron Whiteside
+ */
+final class LinearPattern {
+
+    private static final int MAX_PROGRAM_SIZE = Integer.getInteger(LinearPattern.class.getName() + ".maxProgramSize",
+            20_000);
+
+    // consumes one code point in classes[pc]
+    private static final int CHAR = 0;
+    // continues at both x[pc] and y[pc]
+    private static final int SPLIT = 1;
+    // continues at x[pc]
+    private static final int JUMP = 2;
+    // continues at pc + 1 if assertion x[pc] holds
+    private static final int ASSERT = 3;
+    // pattern x[pc] matched, if at the end of the comment
+    private static final int MATCH = 4;
+
+    private static final int BEGIN_INPUT = 0;
+    private static final int END_INPUT = 1;
+    private static final int END_INPUT_OR_FINAL_TERMINATOR = 2;
+    private static final int BEGIN_LINE = 3;
+    private static final int END_LINE = 4;
+    private static final int WORD_BOUNDARY = 5;
+    private static final int NOT_WORD_BOUNDARY = 6;
+
+    private static final int[] DIGIT = {'0', '9'};
+    private static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+    private static final int[] SPACE = {'\t', '\r', ' ', ' '};
+    private static final int[] TERMINATOR = {'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029};
+
+    private final int[] ops;
+    private final int[] xs;
+    private final int[] ys;
+    private final CharClass[] classes;
+    private final int[] starts;
+
+    private LinearPattern(final Program program, final int[] starts) {
+        this.ops = Arrays.copyOf(program.ops, program.size);
+        this.xs = Arrays.copyOf(program.xs, program.size);
+        this.ys = Arrays.copyOf(program.ys, program.size);
+        this.classes = program.classes.toArray(new CharClass[0]);
+        this.starts = starts;
+    }
+
+    /**
+     * @throws PatternSyntaxException if a pattern is invalid, or uses syntax linear-time matching can't support
+     */
+    static LinearPattern compile(final List<String> regexes) {
+        Program program = new Program();
+        int[] starts = new int[regexes.size()];
+        for (int i = 0; i < regexes.size(); i++) {
+            String regex = regexes.get(i);
+            // anything accepted has to mean the same as it does to java.util.regex
+            Pattern.compile(regex);
+            Node node = new Parser(regex).parse();
+            starts[i] = program.size;
+            program.emit(node, regex);
+            program.emit(MATCH, i, 0, null, regex);
+        }
+        return new LinearPattern(program, starts);
+    }
+
+    /**
+     * @return the indexes of the patterns the whole comment matched
+     * @throws CommentMatchBudget.Exceeded if the budget runs out first
+     */
+    BitSet match(final CharSequence input, final CommentMatchBudget budget) {
+        BitSet matched = new BitSet(starts.length);
+        Threads current = new Threads(ops.length);
+        Threads next = new Threads(ops.length);
+        int[] stack = new int[ops.length];
+
+        for (final int start : starts) {
+            add(current, start, input, 0, stack);
+        }
+
+        int position = 0;
+        int length = input.length();
+        while (current.count > 0) {
+            if (position >= length) {
+                for (int i = 0; i < current.count; i++) {
+                    int pc = current.runnable[i];
+                    if (ops[pc] == MATCH) {
+                        matched.set(xs[pc]);
+                    }
+                }
+                break;
+            }
+
+            budget.spend(current.count);
+            int codePoint = Character.codePointAt(input, position);
+            int nextPosition = position + Character.charCount(codePoint);
+            next.clear();
+            for (int i = 0; i < current.count; i++) {
+                int pc = current.runnable[i];
+                if (ops[pc] == CHAR && classes[pc].matches(codePoint)) {
+                    add(next, pc + 1, input, nextPosition, stack);
+                }
+            }
+
+            Threads swap = current;
+            current = next;
+            next = swap;
+            position = nextPosition;
+        }
+        return matched;
+    }
+
+    private void add(final Threads threads,
+                     final int pc,
+                     final CharSequence input,
+                     final int position,
+                     final int[] stack) {
+        int depth = 0;
+        if (threads.mark(pc)) {
+            stack[depth++] = pc;
+        }
+        while (depth > 0) {
+            int current = stack[--depth];
+            switch (ops[current]) {
+                case JUMP:
+                    if (threads.mark(xs[current])) {
+                        stack[depth++] = xs[current];
+                    }
+                    break;
+                case SPLIT:
+                    if (threads.mark(ys[current])) {
+                        stack[depth++] = ys[current];
+                    }
+                    if (threads.mark(xs[current])) {
+                        stack[depth++] = xs[current];
+                    }
+                    break;
+                case ASSERT:
+                    if (holds(xs[current], input, position) && threads.mark(current + 1)) {
+                        stack[depth++] = current + 1;
+                    }
+                    break;
+                default:
+                    threads.runnable[threads.count++] = current;
+            }
+        }
+    }
+
+    private static boolean holds(final int assertion, final CharSequence input, final int position) {
+        int length = input.length();
+        switch (assertion) {
+            case BEGIN_INPUT:
+                return position == 0;
+            case END_INPUT:
+                return position == length;
+            case END_INPUT_OR_FINAL_TERMINATOR:
+                if (position == length) {
+                    return true;
+                }
+                if (position == length - 2) {
+                    return input.charAt(position) == '\r' && input.charAt(position + 1) == '\n';
+                }
+                return position == length - 1
+                        && isTerminator(input.charAt(position))
+                        && !isCarriageReturnLineFeed(input, position);
+            case BEGIN_LINE:
+                // like java.util.regex, never at the end of the comment, even after a line terminator
+                if (position == length) {
+                    return false;
+                }
+                return position == 0
+                        || (isTerminator(input.charAt(position - 1)) && !isCarriageReturnLineFeed(input, position));
+            case END_LINE:
+                return position == length
+                        || (isTerminator(input.charAt(position)) && !isCarriageReturnLineFeed(input, position));
+            case WORD_BOUNDARY:
+                return isWordBefore(input, position) != isWordAt(input, position);
+            case NOT_WORD_BOUNDARY:
+                return isWordBefore(input, position) == isWordAt(input, position);
+            default:
+                throw new IllegalStateException("Unknown assertion: " + assertion);
+        }
+    }
+
+    // between the \r and \n of a \r\n
+    private static boolean isCarriageReturnLineFeed(final CharSequence input, final int position) {
+        return position > 0
+                && position < input.length()
+                && input.charAt(position - 1) == '\r'
+                && input.charAt(position) == '\n';
+    }
+
+    private static boolean isTerminator(final int c) {
+        return c == '\n' || c == '\r' || c == 0x85 || c == 0x2028 || c == 0x2029;
+    }
+
+    private static boolean isWordBefore(final CharSequence input, final int position) {
+        return position > 0 && isWord(Character.codePointBefore(input, position));
+    }
+
+    private static boolean isWordAt(final CharSequence input, final int position) {
+        return position < input.length() && isWord(Character.codePointAt(input, position));
+    }
+
+    private static boolean isWord(final int codePoint) {
+        return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+    }
+
+    /**
+     * A set of program counters, in the order they were added, that can be cleared in constant time.
+     */
+    private static final class Threads {
+        private final int[] marks;
+        private final int[] runnable;
+        private int generation = 1;
+        private int count;
+
+        private Threads(final int size) {
+            this.marks = new int[size];
+            this.runnable = new int[size];
+        }
+
+        private boolean mark(final int pc) {
+            if (marks[pc] == generation) {
+                return false;
+            }
+            marks[pc] = generation;
+            return true;
+        }
+
+        private void clear() {
+            generation++;
+            count = 0;
+        }
+    }
+
+    private static final class Program {
+        private int[] ops = new int[64];
+        private int[] xs = new int[64];
+        private int[] ys = new int[64];
+        private final List<CharClass> classes = new ArrayList<>();
+        private int size;
+
+        private int emit(final int op, final int x, final int y, final CharClass charClass, final String regex) {
+            if (size == MAX_PROGRAM_SIZE) {
+                throw new PatternSyntaxException("Pattern is too large for linear-time matching", regex, -1);
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+            }
+            ops[size] = op;
+            xs[size] = x;
+            ys[size] = y;
+            classes.add(charClass);
+            return size++;
+        }
+
+        private void emit(final Node node, final String regex) {
+            if (node instanceof CharNode) {
+                emit(CHAR, 0, 0, ((CharNode) node).charClass, regex);
+            } else if (node instanceof AssertNode) {
+                emit(ASSERT, ((AssertNode) node).assertion, 0, null, regex);
+            } else if (node instanceof ConcatNode) {
+                for (final Node item : ((ConcatNode) node).items) {
+                    emit(item, regex);
+                }
+            } else if (node instanceof AltNode) {
+                List<Node> alternatives = ((AltNode) node).alternatives;
+                List<Integer> jumps = new ArrayList<>();
+                for (int i = 0; i < alternatives.size() - 1; i++) {
+                    int split = emit(SPLIT, size + 1, -1, null, regex);
+                    emit(alternatives.get(i), regex);
+                    jumps.add(emit(JUMP, -1, 0, null, regex));
+                    ys[split] = size;
+                }
+                emit(alternatives.get(alternatives.size() - 1), regex);
+                for (final int jump : jumps) {
+                    xs[jump] = size;
+                }
+            } else {
+                RepeatNode repeat = (RepeatNode) node;
+                for (int i = 0; i < repeat.min; i++) {
+                    emit(repeat.node, regex);
+                }
+                if (repeat.max == -1) {
+                    int split = emit(SPLIT, size + 1, -1, null, regex);
+                    emit(repeat.node, regex);
+                    emit(JUMP, split, 0, null, regex);
+                    ys[split] = size;
+                } else {
+                    List<Integer> splits = new ArrayList<>();
+                    for (int i = repeat.min; i < repeat.max; i++) {
+                        splits.add(emit(SPLIT, size + 1, -1, null, regex));
+                        emit(repeat.node, regex);
+                    }
+                    for (final int split : splits) {
+                        ys[split] = size;
+                    }
+                }
+            }
+        }
+    }
+
+    private abstract static class Node {
+        /**
+         * @return whether this can match without consuming anything
+         */
+        abstract boolean isNullable();
+
+        abstract boolean hasAssertion();
+    }
+
+    private static final class CharNode extends Node {
+        private final CharClass charClass;
+
+        private CharNode(final CharClass charClass) {
+            this.charClass = charClass;
+        }
+
+        @Override
+        boolean isNullable() {
+            return false;
+        }
+
+        @Override
+        boolean hasAssertion() {
+            return false;
+        }
+    }
+
+    private static final class AssertNode extends Node {
+        private final int assertion;
+
+        private AssertNode(final int assertion) {
+            this.assertion = assertion;
+        }
+
+        @Override
+        boolean isNullable() {
+            return true;
+        }
+
+        @Override
+        boolean hasAssertion() {
+            return true;
+        }
+    }
+
+    private static final class ConcatNode extends Node {
+        private final List<Node> items;
+
+        private ConcatNode(final List<Node> items) {
+            this.items = items;
+        }
+
+        @Override
+        boolean isNullable() {
+            return items.stream().allMatch(Node::isNullable);
+        }
+
+        @Override
+        boolean hasAssertion() {
+            return items.stream().anyMatch(Node::hasAssertion);
+        }
+    }
+
+    private static final class AltNode extends Node {
+        private final List<Node> alternatives;
+
+        private AltNode(final List<Node> alternatives) {
+            this.alternatives = alternatives;
+        }
+
+        @Override
+        boolean isNullable() {
+            return alternatives.stream().anyMatch(Node::isNullable);
+        }
+
+        @Override
+        boolean hasAssertion() {
+            return alternatives.stream().anyMatch(Node::hasAssertion);
+        }
+    }
+
+    private static final class RepeatNode extends Node {
+        private final Node node;
+        private final int min;
+        // -1 when unbounded
+        private final int max;
+
+        private RepeatNode(final Node node, final int min, final int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean isNullable() {
+            return min == 0 || node.isNullable();
+        }
+
+        @Override
+        boolean hasAssertion() {
+            return node.hasAssertion();
+        }
+    }
+
+    /**
+     * Code point ranges, tested case insensitively if the pattern asked for it.
+     */
+    private static final class CharClass {
+        private final int[] ranges;
+        private final boolean negated;
+        private final int flags;
+
+        private CharClass(final int[] ranges, final boolean negated, final int flags) {
+            this.ranges = ranges;
+            this.negated = negated;
+            this.flags = flags;
+        }
+
+        private boolean matches(final int codePoint) {
+            boolean contained = contains(codePoint);
+            if (!contained && (flags & Pattern.CASE_INSENSITIVE) != 0) {
+                if ((flags & Pattern.UNICODE_CASE) != 0 || codePoint < 0x80) {
+                    contained = contains(Character.toLowerCase(codePoint))
+                            || contains(Character.toUpperCase(codePoint));
+                }
+            }
+            return contained != negated;
+        }
+
+        private boolean contains(final int codePoint) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (codePoint < ranges[i]) {
+                    return false;
+                }
+                if (codePoint <= ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int[] complement(final int[] ranges) {
+            int[] sorted = normalize(ranges);
+            List<Integer> result = new ArrayList<>();
+            int next = 0;
+            for (int i = 0; i < sorted.length; i += 2) {
+                if (sorted[i] > next) {
+                    result.add(next);
+                    result.add(sorted[i] - 1);
+                }
+                next = sorted[i + 1] + 1;
+            }
+            if (next <= Character.MAX_CODE_POINT) {
+                result.add(next);
+                result.add(Character.MAX_CODE_POINT);
+            }
+            return result.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        private static int[] normalize(final int[] ranges) {
+            List<int[]> pairs = new ArrayList<>();
+            for (int i = 0; i < ranges.length; i += 2) {
+                pairs.add(new int[]{ranges[i], ranges[i + 1]});
+            }
+            pairs.sort((a, b) -> Integer.compare(a[0], b[0]));
+            List<Integer> result = new ArrayList<>();
+            for (final int[] pair : pairs) {
+                int last = result.size() - 1;
+                if (last > 0 && pair[0] <= result.get(last) + 1) {
+                    result.set(last, Math.max(result.get(last), pair[1]));
+                } else {
+                    result.add(pair[0]);
+                    result.add(pair[1]);
+                }
+            }
+            return result.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Recursive descent over the supported syntax.
+     */
+    private static final class Parser {
+        private final String regex;
+        private int position;
+        private int flags;
+
+        private Parser(final String regex) {
+            this.regex = regex;
+        }
+
+        private Node parse() {
+            Node node = parseAlternation();
+            if (position < regex.length()) {
+                throw unsupported("Unmatched closing ')'");
+            }
+            return node;
+        }
+
+        private Node parseAlternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (position < regex.length() && regex.charAt(position) == '|') {
+                position++;
+                alternatives.add(parseConcatenation());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new AltNode(alternatives);
+        }
+
+        private Node parseConcatenation() {
+            List<Node> items = new ArrayList<>();
+            while (position < regex.length() && regex.charAt(position) != '|' && regex.charAt(position) != ')') {
+                Node atom = parseAtom();
+                if (atom != null) {
+                    items.add(parseQuantifier(atom));
+                }
+            }
+            return items.size() == 1 ? items.get(0) : new ConcatNode(items);
+        }
+
+        private Node parseQuantifier(final Node atom) {
+            if (position >= regex.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            switch (regex.charAt(position)) {
+                case '*':
+                    min = 0;
+                    max = -1;
+                    position++;
+                    break;
+                case '+':
+                    min = 1;
+                    max = -1;
+                    position++;
+                    break;
+                case '?':
+                    min = 0;
+                    max = 1;
+                    position++;
+                    break;
+                case '{':
+                    position++;
+                    min = parseNumber();
+                    max = min;
+                    if (regex.charAt(position) == ',') {
+                        position++;
+                        max = regex.charAt(position) == '}' ? -1 : parseNumber();
+                    }
+                    position++; // '}'
+                    break;
+                default:
+                    return atom;
+            }
+            if (position < regex.length()) {
+                if (regex.charAt(position) == '+') {
+                    throw unsupported("Possessive quantifiers are not supported");
+                }
+                if (regex.charAt(position) == '?') {
+                    // lazy and greedy only differ in which match is found, not whether there is one
+                    position++;
+                }
+            }
+            if ((max == -1 || max > 1) && atom.isNullable() && atom.hasAssertion()) {
+                // java.util.regex ends a repetition at the first iteration that matches nothing, which only
+                // makes a difference when an assertion decides whether the iteration matched
+                throw unsupported("Repeating an expression that can match only an assertion");
+            }
+            return new RepeatNode(atom, min, max);
+        }
+
+        private int parseNumber() {
+            int start = position;
+            while (Character.isDigit(regex.charAt(position))) {
+                position++;
+            }
+            try {
+                return Integer.parseInt(regex.substring(start, position));
+            } catch (final NumberFormatException e) {
+                throw unsupported("Repetition count is too large");
+            }
+        }
+
+        // null when the atom only changed the flags
+        private Node parseAtom() {
+            char c = regex.charAt(position);
+            switch (c) {
+                case '(':
+                    position++;
+                    return parseGroup();
+                case '[':
+                    position++;
+                    return new CharNode(parseClass());
+                case '.':
+                    position++;
+                    return new CharNode((flags & Pattern.DOTALL) != 0
+                            ? new CharClass(new int[0], true, 0)
+                            : new CharClass(TERMINATOR, true, 0));
+                case '^':
+                    position++;
+                    return new AssertNode((flags & Pattern.MULTILINE) != 0 ? BEGIN_LINE : BEGIN_INPUT);
+                case '$':
+                    position++;
+                    return new AssertNode((flags & Pattern.MULTILINE) != 0
+                            ? END_LINE
+                            : END_INPUT_OR_FINAL_TERMINATOR);
+                case '\\':
+                    position++;
+                    return parseEscape();
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    // java.util.regex quietly applies these to an inline flag group
+                    throw unsupported("Quantifier without an expression to repeat");
+                default:
+                    int codePoint = regex.codePointAt(position);
+                    position += Character.charCount(codePoint);
+                    return literal(codePoint);
+            }
+        }
+
+        private Node parseGroup() {
+            int saved = flags;
+            if (regex.charAt(position) == '?') {
+                position++;
+                char kind = regex.charAt(position);
+                if (kind == ':') {
+                    position++;
+                } else if (kind == '<' && regex.charAt(position + 1) != '=' && regex.charAt(position + 1) != '!') {
+                    // named capturing group, captures aren't needed
+                    position = regex.indexOf('>', position) + 1;
+                } else if (kind == '=' || kind == '!' || kind == '<') {
+                    throw unsupported("Lookaround is not supported");
+                } else if (kind == '>') {
+                    throw unsupported("Atomic groups are not supported");
+                } else {
+                    parseFlags();
+                    if (regex.charAt(position) == ')') {
+                        // applies to the rest of the enclosing group
+                        position++;
+                        return null;
+                    }
+                    position++; // ':'
+                }
+            }
+            Node node = parseAlternation();
+            position++; // ')'
+            flags = saved;
+            return node;
+        }
+
+        private void parseFlags() {
+            boolean on = true;
+            while (regex.charAt(position) != ')' && regex.charAt(position) != ':') {
+                char c = regex.charAt(position);
+                int flag;
+                switch (c) {
+                    case '-':
+                        on = false;
+                        position++;
+                        continue;
+                    case 'i':
+                        flag = Pattern.CASE_INSENSITIVE;
+                        break;
+                    case 's':
+                        flag = Pattern.DOTALL;
+                        break;
+                    case 'm':
+                        flag = Pattern.MULTILINE;
+                        break;
+                    case 'u':
+                        flag = Pattern.UNICODE_CASE;
+                        break;
+                    default:
+                        throw unsupported("Flag '" + c + "' is not supported");
+                }
+                flags = on ? flags | flag : flags & ~flag;
+                position++;
+            }
+        }
+
+        private Node parseEscape() {
+            char c = regex.charAt(position++);
+            switch (c) {
+                case 'b':
+                    return new AssertNode(WORD_BOUNDARY);
+                case 'B':
+                    return new AssertNode(NOT_WORD_BOUNDARY);
+                case 'A':
+                    return new AssertNode(BEGIN_INPUT);
+                case 'z':
+                    return new AssertNode(END_INPUT);
+                case 'Z':
+                    return new AssertNode(END_INPUT_OR_FINAL_TERMINATOR);
+                default:
+                    int[] predefined = predefinedClass(c);
+                    if (predefined != null) {
+                        return new CharNode(new CharClass(predefined, false, flags));
+                    }
+                    return literal(parseEscapedLiteral(c));
+            }
+        }
+
+        private CharClass parseClass() {
+            boolean negated = false;
+            if (regex.charAt(position) == '^') {
+                negated = true;
+                position++;
+            }
+            List<Integer> ranges = new ArrayList<>();
+            boolean first = true;
+            while (regex.charAt(position) != ']' || first) {
+                first = false;
+                char c = regex.charAt(position);
+                if (c == '[' || regex.startsWith("&&", position)) {
+                    throw unsupported("Nested character classes are not supported");
+                }
+                int low;
+                position++;
+                if (c == '\\') {
+                    char escaped = regex.charAt(position++);
+                    int[] predefined = predefinedClass(escaped);
+                    if (predefined != null) {
+                        for (final int bound : predefined) {
+                            ranges.add(bound);
+                        }
+                        continue;
+                    }
+                    low = parseEscapedLiteral(escaped);
+                } else {
+                    low = regex.codePointAt(position - 1);
+                    position += Character.charCount(low) - 1;
+                }
+                int high = low;
+                if (regex.charAt(position) == '-' && regex.charAt(position + 1) != ']') {
+                    position++;
+                    char next = regex.charAt(position++);
+                    if (next == '\\') {
+                        high = parseEscapedLiteral(regex.charAt(position++));
+                    } else {
+                        high = regex.codePointAt(position - 1);
+                        position += Character.charCount(high) - 1;
+                    }
+                }
+                ranges.add(low);
+                ranges.add(high);
+            }
+            position++; // ']'
+            int[] bounds = ranges.stream().mapToInt(Integer::intValue).toArray();
+            return new CharClass(CharClass.normalize(bounds), negated, flags);
+        }
+
+        private int[] predefinedClass(final char c) {
+            switch (c) {
+                case 'd':
+                    return DIGIT;
+                case 'D':
+                    return CharClass.complement(DIGIT);
+                case 'w':
+                    return WORD;
+                case 'W':
+                    return CharClass.complement(WORD);
+                case 's':
+                    return SPACE;
+                case 'S':
+                    return CharClass.complement(SPACE);
+                default:
+                    return null;
+            }
+        }
+
+        private int parseEscapedLiteral(final char c) {
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'a':
+                    return 0x07;
+                case 'e':
+                    return 0x1B;
+                case 'c':
+                    return regex.charAt(position++) ^ 64;
+                case '0':
+                    return parseOctal();
+                case 'x':
+                    if (regex.charAt(position) == '{') {
+                        int end = regex.indexOf('}', position);
+                        int value = Integer.parseInt(regex.substring(position + 1, end), 16);
+                        position = end + 1;
+                        return value;
+                    }
+                    position += 2;
+                    return Integer.parseInt(regex.substring(position - 2, position), 16);
+                case 'u':
+                    position += 4;
+                    return Integer.parseInt(regex.substring(position - 4, position), 16);
+                case 'Q':
+                case 'E':
+                    throw unsupported("\\Q quoting is not supported");
+                case 'k':
+                    throw unsupported("Back references are not supported");
+                default:
+                    if (c >= '1' && c <= '9') {
+                        throw unsupported("Back references are not supported");
+                    }
+                    if (Character.isLetterOrDigit(c)) {
+                        throw unsupported("\\" + c + " is not supported");
+                    }
+                    return c;
+            }
+        }
+
+        private int parseOctal() {
+            int value = 0;
+            int digits = 0;
+            while (digits < 3 && position < regex.length()
+                    && regex.charAt(position) >= '0' && regex.charAt(position) <= '7') {
+                int next = value * 8 + (regex.charAt(position) - '0');
+                if (next > 0377) {
+                    break;
+                }
+                value = next;
+                position++;
+                digits++;
+            }
+            return value;
+        }
+
+        private Node literal(final int codePoint) {
+            return new CharNode(new CharClass(new int[]{codePoint, codePoint}, false, flags));
+        }
+
+        private PatternSyntaxException unsupported(final String description) {
+            return new PatternSyntaxException(description + " in linear-time mode", regex, position - 1);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.util.PluginServletFilter;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Answers GitHub webhook deliveries with 503 Service Unavailable while {@link WebhookEventQueue} is full and set
+ * to reject events, so that GitHub records the delivery as failed rather than successful. GitHub doesn't
+ * redeliver failed deliveries by itself, they are listed among the hook's recent deliveries, from where they
+ * can be redelivered by hand or through the API.
+ *
+ * The GitHub plugin always acknowledges a delivery once it has been passed to the event subscribers, this is
+ * the only point a delivery can still be refused. Only events handled by nothing but
+ * {@link GitHubEventSubscriber} are refused, pushes, pull requests and the like are left to the plugins that
+ * build them.
+ *
+ * @author Aaron Whiteside
+ */
+public class WebhookBackpressureFilter implements Filter {
+
+    private static final String WEBHOOK_PATH = "/github-webhook";
+
+    private static final String EVENT_HEADER = "X-GitHub-Event";
+
+    // GitHubEventSubscriber's events, less pull_request which other plugins build from
+    private static final Set<String> REFUSABLE_EVENTS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("issue_comment", "status", "member", "membership")));
+
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    public static void register() throws ServletException {
+        if (WebhookEventQueue.getOverflow() == WebhookEventQueue.Overflow.REJECT) {
+            PluginServletFilter.addFilter(new WebhookBackpressureFilter());
+        }
+    }
+
+    @Override
+    public void init(final FilterConfig filterConfig) {
+        // nothing to do
+    }
+
+    @Override
+    public void doFilter(final ServletRequest request,
+                         final ServletResponse response,
+                         final FilterChain chain) throws IOException, ServletException {
+        if (request instanceof HttpServletRequest && isRefusableDelivery((HttpServletRequest) request)
+                && WebhookEventQueue.isRejecting()) {
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setHeader("Retry-After", "60");
+            httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Webhook event queue is full");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isRefusableDelivery(final HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return false;
+        }
+        String path = request.getPathInfo();
+        return path != null && (path.equals(WEBHOOK_PATH) || path.startsWith(WEBHOOK_PATH + '/'))
+                && REFUSABLE_EVENTS.contains(request.getHeader(EVENT_HEADER));
+    }
+
+    @Override
+    public void destroy() {
+        // nothing to do
+    }
+}
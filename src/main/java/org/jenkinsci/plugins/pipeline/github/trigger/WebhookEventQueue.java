@@ -0,0 +1,291 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue of webhook events, handled by a pool of worker threads so that the thread delivering an event
+ * returns straight away.
+ *
+ * Events of the same repository are handled one at a time in the order they were delivered, events of
+ * different repositories in parallel. When the queue is full either the oldest queued event is dropped to make
+ * room, or the new event is rejected, in which case {@link WebhookBackpressureFilter} answers deliveries with
+ * 503 Service Unavailable until there is room again.
+ *
+ * @author Aaron Whiteside
+ */
+public final class WebhookEventQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebhookEventQueue.class);
+
+    private static final String PREFIX = WebhookEventQueue.class.getName();
+
+    private static final int CAPACITY = Integer.getInteger(PREFIX + ".capacity", 1000);
+
+    private static final int THREADS = Integer.getInteger(PREFIX + ".threads", 4);
+
+    private static final Overflow OVERFLOW = Overflow.of(System.getProperty(PREFIX + ".overflow", "dropOldest"));
+
+    // events handled per second over the last minute
+    private static final int WINDOW_SECONDS = 60;
+
+    /**
+     * What to do with an event delivered while the queue is full.
+     */
+    public enum Overflow {
+        DROP_OLDEST,
+        REJECT;
+
+        static Overflow of(final String name) {
+            if ("reject".equalsIgnoreCase(name)) {
+                return REJECT;
+            }
+            if (!"dropOldest".equalsIgnoreCase(name)) {
+                LOG.warn("Unknown overflow policy {}, dropping the oldest events instead", name);
+            }
+            return DROP_OLDEST;
+        }
+    }
+
+    private static final Object lock = new Object();
+    private static final ArrayDeque<Task> pending = new ArrayDeque<>();
+    // repositories with an event being handled right now
+    private static final Set<String> active = new HashSet<>();
+    private static boolean started;
+
+    private static final long[] handledPerSecond = new long[WINDOW_SECONDS];
+    private static final long[] handledSecond = new long[WINDOW_SECONDS];
+
+    private static long submitted;
+    private static long handled;
+    private static long failed;
+    private static long dropped;
+    private static long rejected;
+    private static long totalWaitNanos;
+    private static long maxWaitNanos;
+    private static long totalHandlingNanos;
+
+    private WebhookEventQueue() {
+        // go away
+    }
+
+    /**
+     * Queues an event's handler.
+     *
+     * @param repository owner/name of the event's repository, or whatever else events have to be ordered by
+     * @return false if the event was rejected because the queue is full
+     */
+    static boolean submit(final String repository, final Runnable handler) {
+        Task task = new Task(repository.toLowerCase(Locale.ENGLISH), handler);
+        synchronized (lock) {
+            if (!started) {
+                start();
+            }
+            if (pending.size() >= CAPACITY) {
+                if (OVERFLOW == Overflow.REJECT) {
+                    // the caller reports the event it couldn't queue
+                    rejected++;
+                    return false;
+                }
+                Task oldest = pending.pollFirst();
+                dropped++;
+                LOG.warn("Webhook event queue is full, dropping the oldest event, for {}", oldest.repository);
+            }
+            pending.addLast(task);
+            submitted++;
+            lock.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * @return whether events are being rejected, the queue being full
+     */
+    static boolean isRejecting() {
+        synchronized (lock) {
+            return OVERFLOW == Overflow.REJECT && pending.size() >= CAPACITY;
+        }
+    }
+
+    private static void start() {
+        for (int i = 1; i <= THREADS; i++) {
+            Thread thread = new Thread(WebhookEventQueue::work, "GitHub webhook event handler " + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        started = true;
+    }
+
+    private static void work() {
+        while (true) {
+            Task task;
+            synchronized (lock) {
+                while ((task = next()) == null) {
+                    try {
+                        lock.wait();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                active.add(task.repository);
+            }
+
+            long start = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                task.handler.run();
+                succeeded = true;
+            } catch (final Throwable t) {
+                // an Error too, a worker that died would never be replaced
+                LOG.error("Unable to handle a webhook event for {}", task.repository, t);
+            } finally {
+                long end = System.nanoTime();
+                synchronized (lock) {
+                    active.remove(task.repository);
+                    record(task, start, end, succeeded);
+                    // the repository's next event may be waiting on this one
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    // the oldest event whose repository has no event being handled
+    private static Task next() {
+        Iterator<Task> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            if (!active.contains(task.repository)) {
+                iterator.remove();
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private static void record(final Task task, final long start, final long end, final boolean succeeded) {
+        long wait = start - task.queuedAt;
+        totalWaitNanos += wait;
+        maxWaitNanos = Math.max(maxWaitNanos, wait);
+        totalHandlingNanos += end - start;
+        if (succeeded) {
+            handled++;
+        } else {
+            failed++;
+        }
+
+        long second = TimeUnit.NANOSECONDS.toSeconds(end);
+        int bucket = (int) Math.floorMod(second, (long) WINDOW_SECONDS);
+        if (handledSecond[bucket] != second) {
+            handledSecond[bucket] = second;
+            handledPerSecond[bucket] = 0;
+        }
+        handledPerSecond[bucket]++;
+    }
+
+    public static Overflow getOverflow() {
+        return OVERFLOW;
+    }
+
+    public static int getCapacity() {
+        return CAPACITY;
+    }
+
+    public static int getThreads() {
+        return THREADS;
+    }
+
+    public static int getDepth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public static long getSubmittedCount() {
+        synchronized (lock) {
+            return submitted;
+        }
+    }
+
+    /**
+     * @return the number of events handled, including those whose handling failed
+     */
+    public static long getHandledCount() {
+        synchronized (lock) {
+            return handled + failed;
+        }
+    }
+
+    public static long getFailedCount() {
+        synchronized (lock) {
+            return failed;
+        }
+    }
+
+    public static long getDroppedCount() {
+        synchronized (lock) {
+            return dropped;
+        }
+    }
+
+    public static long getRejectedCount() {
+        synchronized (lock) {
+            return rejected;
+        }
+    }
+
+    public static long getAverageWaitMillis() {
+        synchronized (lock) {
+            long count = handled + failed;
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / count);
+        }
+    }
+
+    public static long getMaxWaitMillis() {
+        synchronized (lock) {
+            return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos);
+        }
+    }
+
+    public static long getAverageHandlingMillis() {
+        synchronized (lock) {
+            long count = handled + failed;
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalHandlingNanos / count);
+        }
+    }
+
+    /**
+     * @return events handled per second, averaged over the last minute
+     */
+    public static double getThroughput() {
+        long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long total = 0;
+        synchronized (lock) {
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (now - handledSecond[i] < WINDOW_SECONDS) {
+                    total += handledPerSecond[i];
+                }
+            }
+        }
+        return (double) total / WINDOW_SECONDS;
+    }
+
+    private static final class Task {
+        private final String repository;
+        private final Runnable handler;
+        private final long queuedAt = System.nanoTime();
+
+        private Task(final String repository, final Runnable handler) {
+            this.repository = repository;
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class DiffPositionIndexTest {
+
+    private static final String MULTI_HUNK_PATCH = String.join("\n",
+            "@@ -1,3 +1,4 @@",
+            " line 1",
+            "-old line 2",
+            "+new line 2",
+            "+new line 3",
+            " line 4",
+            "@@ -10,2 +11,3 @@ public class Example {",
+            " line 11",
+            "+line 12",
+            " line 13",
+            "@@ -40,3 +42,2 @@",
+            " line 42",
+            "-removed",
+            "-removed too",
+            " line 43");
+
+    private static final String NO_NEWLINE_PATCH = String.join("\n",
+            "@@ -5 +5,2 @@",
+            "-last",
+            "\\ No newline at end of file",
+            "+last",
+            "+appended",
+            "\\ No newline at end of file",
+            "");
+
+    @Test
+    public void countsEveryLineBelowTheFirstHunkHeader() {
+        DiffPositionIndex index = new DiffPositionIndex();
+        index.add("Example.java", MULTI_HUNK_PATCH);
+
+        // first hunk, the removed line takes a position but has no new line number
+        assertEquals(Integer.valueOf(1), index.position("Example.java", 1));
+        assertEquals(Integer.valueOf(3), index.position("Example.java", 2));
+        assertEquals(Integer.valueOf(4), index.position("Example.java", 3));
+        assertEquals(Integer.valueOf(5), index.position("Example.java", 4));
+
+        // later hunk headers count as a line and restart the new line numbers
+        assertEquals(Integer.valueOf(7), index.position("Example.java", 11));
+        assertEquals(Integer.valueOf(8), index.position("Example.java", 12));
+        assertEquals(Integer.valueOf(9), index.position("Example.java", 13));
+        assertEquals(Integer.valueOf(11), index.position("Example.java", 42));
+        assertEquals(Integer.valueOf(14), index.position("Example.java", 43));
+    }
+
+    @Test
+    public void linesOutsideTheHunksHaveNoPosition() {
+        DiffPositionIndex index = new DiffPositionIndex();
+        index.add("Example.java", MULTI_HUNK_PATCH);
+
+        assertNull(index.position("Example.java", 5));
+        assertNull(index.position("Example.java", 10));
+        assertNull(index.position("Example.java", 14));
+        assertNull(index.position("Example.java", 41));
+        assertNull(index.position("Example.java", 44));
+        assertNull(index.position("Example.java", 0));
+    }
+
+    @Test
+    public void positionsAreCountedPerFile() {
+        DiffPositionIndex index = new DiffPositionIndex();
+        index.add("Example.java", MULTI_HUNK_PATCH);
+        index.add("notes.txt", NO_NEWLINE_PATCH);
+
+        // the "no newline" markers take a position too
+        assertEquals(Integer.valueOf(3), index.position("notes.txt", 5));
+        assertEquals(Integer.valueOf(4), index.position("notes.txt", 6));
+        assertEquals(Integer.valueOf(1), index.position("Example.java", 1));
+        assertNull(index.position("notes.txt", 1));
+    }
+
+    @Test
+    public void filesWithoutAPatchHaveNoPositions() {
+        DiffPositionIndex index = new DiffPositionIndex();
+        // binary files, or patches too large for GitHub to include
+        index.add("image.png", null);
+
+        assertNull(index.position("image.png", 1));
+        assertNull(index.position("missing.txt", 1));
+    }
+}
@@ -0,0 +1,107 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class GlobTrieTest {
+
+    @Test
+    public void literalPatternsMatchOnlyTheWholePath() {
+        GlobTrie trie = trie("README.md", "docs/index.md");
+
+        assertEquals(bits(0), trie.match("README.md"));
+        assertEquals(bits(1), trie.match("docs/index.md"));
+        assertEquals(bits(), trie.match("docs/README.md"));
+        assertEquals(bits(), trie.match("docs"));
+        assertEquals(bits(), trie.match("docs/index.md/extra"));
+    }
+
+    @Test
+    public void starMatchesWithinOneSegment() {
+        GlobTrie trie = trie("src/*.java", "*.md", "lib-*-core/pom.xml");
+
+        assertEquals(bits(0), trie.match("src/Main.java"));
+        assertEquals(bits(0), trie.match("src/.java"));
+        assertEquals(bits(), trie.match("src/main/Main.java"));
+        assertEquals(bits(1), trie.match("CHANGES.md"));
+        assertEquals(bits(), trie.match("docs/CHANGES.md"));
+        assertEquals(bits(2), trie.match("lib-a-core/pom.xml"));
+        assertEquals(bits(), trie.match("lib-core/pom.xml"));
+    }
+
+    @Test
+    public void questionMarkMatchesOneCharacter() {
+        GlobTrie trie = trie("v?/notes.txt");
+
+        assertEquals(bits(0), trie.match("v1/notes.txt"));
+        assertEquals(bits(), trie.match("v10/notes.txt"));
+        assertEquals(bits(), trie.match("v/notes.txt"));
+    }
+
+    @Test
+    public void doubleStarMatchesAnyNumberOfSegments() {
+        GlobTrie trie = trie("**/*.java", "src/**/test/**", "**");
+
+        assertEquals(bits(0, 2), trie.match("Main.java"));
+        assertEquals(bits(0, 2), trie.match("a/b/c/Main.java"));
+        assertEquals(bits(0, 1, 2), trie.match("src/test/Main.java"));
+        assertEquals(bits(0, 1, 2), trie.match("src/a/b/test/c/Main.java"));
+        assertEquals(bits(1, 2), trie.match("src/test/resources/data.json"));
+        assertEquals(bits(2), trie.match("src/main/resources/data.json"));
+    }
+
+    @Test
+    public void trailingSlashAnchorsADirectory() {
+        GlobTrie trie = trie("docs/", "modules/*/");
+
+        assertEquals(bits(0), trie.match("docs/index.md"));
+        assertEquals(bits(0), trie.match("docs/api/v1/index.md"));
+        assertEquals(bits(), trie.match("docs.md"));
+        assertEquals(bits(), trie.match("other/docs/index.md"));
+        assertEquals(bits(1), trie.match("modules/core/src/Main.java"));
+        assertEquals(bits(), trie.match("modules"));
+    }
+
+    @Test
+    public void regexCharactersInPatternsAreLiteral() {
+        GlobTrie trie = trie("a+b/(c).txt", "*.[ch]");
+
+        assertEquals(bits(0), trie.match("a+b/(c).txt"));
+        assertEquals(bits(), trie.match("aab/c.txt"));
+        assertEquals(bits(1), trie.match("x.[ch]"));
+        assertEquals(bits(), trie.match("x.c"));
+    }
+
+    @Test
+    public void patternsSharingPrefixesAreReportedTogether() {
+        GlobTrie trie = trie("src/main/", "src/main/*.java", "src/*/Main.java", "src/main/Main.java");
+
+        assertEquals(4, trie.size());
+        assertEquals(bits(0, 1, 2, 3), trie.match("src/main/Main.java"));
+        assertEquals(bits(0, 1), trie.match("src/main/Other.java"));
+        assertEquals(bits(2), trie.match("src/test/Main.java"));
+        assertEquals(bits(), trie.match("test/Main.java"));
+    }
+
+    private static GlobTrie trie(final String... patterns) {
+        GlobTrie trie = new GlobTrie();
+        for (int i = 0; i < patterns.length; i++) {
+            assertEquals(i, trie.add(patterns[i]));
+        }
+        return trie;
+    }
+
+    private static BitSet bits(final int... indexes) {
+        BitSet bits = new BitSet();
+        for (final int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,195 @@
+package org.jenkinsci.plugins.pipeline.github;
+
+import org.eclipse.egit.github.core.PullRequestMarker;
+import org.eclipse.egit.github.core.Repository;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.eclipse.egit.github.core.User;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedGitHubClient;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedPullRequest;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class PullRequestGroovyObjectSerializationTest {
+
+    private static final RepositoryId BASE = RepositoryId.create("jenkinsci", "pipeline-github-plugin");
+    private static final RepositoryId HEAD = RepositoryId.create("contributor", "pipeline-github-plugin");
+    private static final String SHA = "4b825dc642cb6eb9a060e54bf8d69288fbee4904";
+
+    @Test
+    public void testSerializedFormOnlyKeepsIdentity() throws Exception {
+        ExtendedPullRequest loaded = pullRequest();
+        List<String> labels = Arrays.asList("bug", "needs-review", "backport");
+        List<String> changedFileNames = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            changedFileNames.add("src/main/java/org/example/module" + (i % 20) + "/Class" + i + ".java");
+        }
+
+        PullRequestGroovyObject pullRequest =
+                new PullRequestGroovyObject(null, BASE, HEAD, 42, SHA, new ExtendedGitHubClient());
+        set(pullRequest, "pullRequest", loaded);
+        set(pullRequest, "labels", new ArrayList<>(labels));
+        set(pullRequest, "changedFileNames", changedFileNames);
+        set(pullRequest, "changedFileNamesSha", SHA);
+
+        // everything the default form would have written, less the client and services it couldn't
+        int full = serializedSize(new Object[]{BASE, HEAD, 42, SHA, loaded, labels, changedFileNames, SHA});
+        int compact = serializedSize(pullRequest);
+
+        assertTrue("compact form of " + compact + " bytes should be at least 10x smaller than " + full,
+                compact * 10 < full);
+    }
+
+    @Test
+    public void testRoundTripKeepsSettingsAndPendingEditsWithoutResolvingTheClient() throws Exception {
+        PullRequestGroovyObject pullRequest =
+                new PullRequestGroovyObject("folder/job#7", BASE, HEAD, 42, SHA, new ExtendedGitHubClient());
+        pullRequest.setSyncMode(true);
+        pullRequest.batch();
+        pullRequest.setTitle("Renamed while batching");
+        pullRequest.setLabels(Arrays.asList("bug", "backport"));
+        set(pullRequest, "credentialsUserName", "bot");
+        set(pullRequest, "credentialsPassword", "{encrypted}");
+
+        // readResolve() runs without Jenkins, it mustn't look up the build, its job or credentials
+        PullRequestGroovyObject restored = roundTrip(pullRequest);
+
+        assertNull("the client is resolved on first use", get(restored, "gitHubClient"));
+        assertNull(get(restored, "commitService"));
+        assertEquals("folder/job#7", get(restored, "runId"));
+        assertEquals(42, restored.getNumber());
+        assertEquals(SHA, restored.getHead());
+        assertTrue(restored.isSyncMode());
+        assertEquals("bot", get(restored, "credentialsUserName"));
+        assertEquals("{encrypted}", get(restored, "credentialsPassword"));
+
+        Object pendingEdit = get(restored, "pendingEdit");
+        assertNotNull("unflushed edits survive", pendingEdit);
+        assertEquals("Renamed while batching", ((ExtendedPullRequest) get(pendingEdit, "fields")).getTitle());
+        assertEquals(Arrays.asList("bug", "backport"), get(pendingEdit, "labels"));
+        assertNull(get(pendingEdit, "assignees"));
+
+        // as if resolved from the job, pointing nowhere: every call may fail to connect, none may find the
+        // transient services it read directly still null
+        set(restored, "gitHubClient", new ExtendedGitHubClient("localhost", closedPort(), "http"));
+        for (final Method method : PullRequestGroovyObject.class.getDeclaredMethods()) {
+            if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())
+                    || method.getParameterCount() != 0) {
+                continue;
+            }
+            try {
+                Object result = method.invoke(restored);
+                if (result instanceof Iterable) {
+                    ((Iterable<?>) result).iterator().hasNext();
+                }
+            } catch (final InvocationTargetException e) {
+                assertNoTransientFieldRead(method, e.getCause());
+            } catch (final RuntimeException e) {
+                assertNoTransientFieldRead(method, e);
+            }
+        }
+    }
+
+    private static void assertNoTransientFieldRead(final Method method, final Throwable thrown) {
+        for (Throwable t = thrown; t != null; t = t.getCause()) {
+            StackTraceElement[] trace = t.getStackTrace();
+            if (t instanceof NullPointerException && trace.length > 0
+                    && trace[0].getClassName().startsWith(PullRequestGroovyObject.class.getName())) {
+                throw new AssertionError(method.getName() + "() dereferenced null after a round trip", t);
+            }
+        }
+    }
+
+    private static int closedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ExtendedPullRequest pullRequest() {
+        User user = new User().setLogin("contributor").setId(1234).setName("A Contributor")
+                .setAvatarUrl("https://avatars.githubusercontent.com/u/1234?v=4")
+                .setHtmlUrl("https://github.com/contributor").setUrl("https://api.github.com/users/contributor");
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            body.append("This change updates part ").append(i).append(" of the pipeline integration.\n");
+        }
+
+        ExtendedPullRequest pullRequest = new ExtendedPullRequest();
+        pullRequest.setNumber(42);
+        pullRequest.setId(123456789L);
+        pullRequest.setTitle("Make the pull request global variable cheaper to checkpoint");
+        pullRequest.setBody(body.toString());
+        pullRequest.setState("open");
+        pullRequest.setUser(user);
+        pullRequest.setCreatedAt(new Date());
+        pullRequest.setUpdatedAt(new Date());
+        pullRequest.setHtmlUrl("https://github.com/jenkinsci/pipeline-github-plugin/pull/42");
+        pullRequest.setDiffUrl("https://github.com/jenkinsci/pipeline-github-plugin/pull/42.diff");
+        pullRequest.setPatchUrl("https://github.com/jenkinsci/pipeline-github-plugin/pull/42.patch");
+        pullRequest.setHead(marker("contributor:feature", SHA, user));
+        pullRequest.setBase(marker("jenkinsci:master", "9fceb02d0ae598e95dc970b74767f19372d61af8", user));
+        pullRequest.setMergeCommitSha("e5bd3914e2e596debea16f433f57875b5b90bcd6");
+        return pullRequest;
+    }
+
+    private static PullRequestMarker marker(final String label, final String sha, final User user) {
+        Repository repository = new Repository().setName("pipeline-github-plugin").setOwner(user)
+                .setHtmlUrl("https://github.com/" + user.getLogin() + "/pipeline-github-plugin")
+                .setDescription("Pipeline: GitHub");
+        return new PullRequestMarker().setLabel(label).setSha(sha).setUser(user).setRepo(repository)
+                .setRef(label.substring(label.indexOf(':') + 1));
+    }
+
+    private static void set(final Object target, final String name, final Object value) throws Exception {
+        Field field = PullRequestGroovyObject.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static Object get(final Object target, final String name) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(target);
+    }
+
+    private static PullRequestGroovyObject roundTrip(final PullRequestGroovyObject pullRequest) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(pullRequest);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (PullRequestGroovyObject) in.readObject();
+        }
+    }
+
+    private static int serializedSize(final Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.size();
+    }
+}
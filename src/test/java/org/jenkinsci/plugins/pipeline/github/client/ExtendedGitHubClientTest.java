@@ -0,0 +1,206 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Conditional requests against a local stub of the API.
+ *
+ * @author Aaron Whiteside
+ */
+public class ExtendedGitHubClientTest {
+
+    private static final RepositoryId REPOSITORY = RepositoryId.create("owner", "repo");
+
+    private static final int PAGES = 3;
+
+    private final ConditionalRequestCache cache = new ConditionalRequestCache(1024 * 1024);
+
+    private StubServer server;
+    private StubServer otherServer;
+
+    @Before
+    public void startServers() throws IOException {
+        server = new StubServer();
+        otherServer = new StubServer();
+    }
+
+    @After
+    public void stopServers() {
+        server.stop();
+        otherServer.stop();
+    }
+
+    @Test
+    public void notModifiedPagesReplayTheirLinkSoPagingContinues() throws IOException {
+        ExtendedGitHubClient client = client(server, "user", "secret");
+
+        assertEquals(Arrays.asList("label-1", "label-2", "label-3"), labels(client));
+        assertEquals(Arrays.asList(null, null, null), server.ifNoneMatch());
+        assertEquals(Arrays.asList(200, 200, 200), server.codes());
+
+        server.reset();
+        // every page is answered with a bare 304, the next one is only found through the cached Link header
+        assertEquals(Arrays.asList("label-1", "label-2", "label-3"), labels(client));
+        assertEquals(Arrays.asList("\"page-1\"", "\"page-2\"", "\"page-3\""), server.ifNoneMatch());
+        assertEquals(Arrays.asList(304, 304, 304), server.codes());
+
+        assertEquals(PAGES, cache.getMissCount());
+        assertEquals(PAGES, cache.getHitCount());
+    }
+
+    @Test
+    public void entriesAreKeptApartByCredentials() throws IOException {
+        labels(client(server, "user", "secret"));
+
+        server.reset();
+        labels(client(server, null, null));
+        assertEquals(Arrays.asList(null, null, null), server.ifNoneMatch());
+
+        server.reset();
+        labels(client(server, "user", "another secret"));
+        assertEquals(Arrays.asList(null, null, null), server.ifNoneMatch());
+
+        server.reset();
+        // another client with the same credentials shares the entries
+        labels(client(server, "user", "secret"));
+        assertEquals(Arrays.asList(304, 304, 304), server.codes());
+    }
+
+    @Test
+    public void entriesAreKeptApartByHost() throws IOException {
+        labels(client(server, "user", "secret"));
+
+        List<String> labels = labels(client(otherServer, "user", "secret"));
+        assertEquals(Arrays.asList("label-1", "label-2", "label-3"), labels);
+        assertEquals(Arrays.asList(null, null, null), otherServer.ifNoneMatch());
+        assertEquals(Arrays.asList(200, 200, 200), otherServer.codes());
+    }
+
+    @Test
+    public void responsesWithoutValidatorsAreNotCached() throws IOException {
+        ExtendedGitHubClient client = client(server, "user", "secret");
+        server.validators = false;
+
+        labels(client);
+        server.reset();
+        labels(client);
+
+        assertEquals(Arrays.asList(null, null, null), server.ifNoneMatch());
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    private ExtendedGitHubClient client(final StubServer stub, final String userName, final String password) {
+        ExtendedGitHubClient client = new ExtendedGitHubClient("localhost", stub.getPort(), "http");
+        if (userName != null) {
+            client.setCredentials(userName, password);
+        }
+        return client.setCache(cache);
+    }
+
+    private static List<String> labels(final ExtendedGitHubClient client) {
+        List<String> names = new ArrayList<>();
+        for (final Collection<Label> page : new ExtendedIssueService(client).getLabels(REPOSITORY, 1)) {
+            for (final Label label : page) {
+                names.add(label.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Serves {@value #PAGES} pages of labels, each with an ETag, answering 304 with no other header when the
+     * page's ETag is sent back.
+     */
+    private static final class StubServer {
+        private final HttpServer server;
+        private final List<String> ifNoneMatch = Collections.synchronizedList(new ArrayList<>());
+        private final List<Integer> codes = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean validators = true;
+
+        private StubServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        private void handle(final HttpExchange exchange) throws IOException {
+            int page = page(exchange.getRequestURI().getQuery());
+            String etag = "\"page-" + page + '"';
+            String sent = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.add(sent);
+
+            if (etag.equals(sent)) {
+                codes.add(304);
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = ("[{\"name\":\"label-" + page + "\"}]").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            if (validators) {
+                exchange.getResponseHeaders().add("ETag", etag);
+            }
+            if (page < PAGES) {
+                String base = "http://localhost:" + getPort() + exchange.getRequestURI().getPath();
+                exchange.getResponseHeaders().add("Link",
+                        '<' + base + "?page=" + (page + 1) + "&per_page=1>; rel=\"next\", "
+                                + '<' + base + "?page=" + PAGES + "&per_page=1>; rel=\"last\"");
+            }
+            codes.add(200);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+
+        private static int page(final String query) {
+            if (query != null) {
+                for (final String param : query.split("&")) {
+                    if (param.startsWith("page=")) {
+                        return Integer.parseInt(param.substring("page=".length()));
+                    }
+                }
+            }
+            return 1;
+        }
+
+        private int getPort() {
+            return server.getAddress().getPort();
+        }
+
+        private List<String> ifNoneMatch() {
+            return new ArrayList<>(ifNoneMatch);
+        }
+
+        private List<Integer> codes() {
+            return new ArrayList<>(codes);
+        }
+
+        private void reset() {
+            ifNoneMatch.clear();
+            codes.clear();
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class ExtendedPullRequestServiceTest {
+
+    private static final RepositoryId REPOSITORY = RepositoryId.create("jenkinsci", "pipeline-github-plugin");
+
+    @Test
+    public void reviewWithoutCommentsIsSubmittedAsIs() throws Exception {
+        RecordingService service = new RecordingService();
+        service.createReviews(REPOSITORY, 1, "abc", "Looks good", "APPROVE", comments(0));
+
+        assertEquals(1, service.submitted.size());
+        service.submitted.get(0).check("Looks good", "APPROVE", 0);
+    }
+
+    @Test
+    public void fullChunkIsSubmittedAsIs() throws Exception {
+        RecordingService service = new RecordingService();
+        service.createReviews(REPOSITORY, 1, "abc", "Looks good", "APPROVE", comments(50));
+
+        assertEquals(1, service.submitted.size());
+        service.submitted.get(0).check("Looks good", "APPROVE", 50);
+    }
+
+    @Test
+    public void onlyTheLastChunkCarriesTheCallersBodyAndEvent() throws Exception {
+        RecordingService service = new RecordingService();
+        service.createReviews(REPOSITORY, 1, "abc", "Please fix", "REQUEST_CHANGES", comments(51));
+
+        assertEquals(2, service.submitted.size());
+        service.submitted.get(0).check("Review comments (part 1 of 2)", "COMMENT", 50);
+        service.submitted.get(1).check("Please fix", "REQUEST_CHANGES", 1);
+    }
+
+    @Test
+    public void everyIntermediateChunkHasABody() throws Exception {
+        RecordingService service = new RecordingService();
+        List<ExtendedCommitComment> comments = comments(120);
+        service.createReviews(REPOSITORY, 1, "abc", null, "COMMENT", comments);
+
+        assertEquals(3, service.submitted.size());
+        service.submitted.get(0).check("Review comments (part 1 of 3)", "COMMENT", 50);
+        service.submitted.get(1).check("Review comments (part 2 of 3)", "COMMENT", 50);
+        service.submitted.get(2).check(null, "COMMENT", 20);
+        // in order, none left out
+        assertEquals(comments.get(0), service.submitted.get(0).comments.get(0));
+        assertEquals(comments.get(50), service.submitted.get(1).comments.get(0));
+        assertEquals(comments.get(119), service.submitted.get(2).comments.get(19));
+    }
+
+    private static List<ExtendedCommitComment> comments(final int count) {
+        List<ExtendedCommitComment> comments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ExtendedCommitComment comment = new ExtendedCommitComment();
+            comment.setPath("src/File" + i + ".java");
+            comment.setPosition(i + 1);
+            comment.setBody("Finding " + i);
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    private static final class Submitted {
+        private final String body;
+        private final String event;
+        private final List<ExtendedCommitComment> comments;
+
+        private Submitted(final String body, final String event, final List<ExtendedCommitComment> comments) {
+            this.body = body;
+            this.event = event;
+            this.comments = new ArrayList<>(comments);
+        }
+
+        private void check(final String expectedBody, final String expectedEvent, final int expectedComments) {
+            assertEquals(expectedBody, body);
+            assertEquals(expectedEvent, event);
+            assertEquals(expectedComments, comments.size());
+        }
+    }
+
+    private static final class RecordingService extends ExtendedPullRequestService {
+        private final List<Submitted> submitted = new ArrayList<>();
+
+        private RecordingService() {
+            super(new ExtendedGitHubClient());
+        }
+
+        @Override
+        public ExtendedPullRequestReview createReview(final IRepositoryIdProvider repository,
+                                                      final int id,
+                                                      final String commitId,
+                                                      final String body,
+                                                      final String event,
+                                                      final List<ExtendedCommitComment> comments) {
+            submitted.add(new Submitted(body, event, comments));
+            return new ExtendedPullRequestReview();
+        }
+    }
+}
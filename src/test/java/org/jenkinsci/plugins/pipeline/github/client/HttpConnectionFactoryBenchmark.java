@@ -0,0 +1,82 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares request latency of the legacy and pooled transports against a local stub server.
+ *
+ * Not part of the default build, run with {@code mvn test -Pbenchmark}.
+ *
+ * @author Aaron Whiteside
+ */
+public class HttpConnectionFactoryBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpConnectionFactoryBenchmark.class);
+
+    private static final int REQUESTS = 500;
+    private static final byte[] BODY = "{\"number\":1,\"title\":\"stub\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void compareTransports() throws IOException {
+        // warm up both so class loading isn't measured
+        run(DefaultHttpConnectionFactory.INSTANCE, 50);
+        OkHttpConnectionFactory pooled = new OkHttpConnectionFactory(5, 60_000, 5_000, 5_000);
+        run(pooled, 50);
+
+        long legacy = run(DefaultHttpConnectionFactory.INSTANCE, REQUESTS);
+        long okhttp = run(pooled, REQUESTS);
+
+        LOG.info("legacy: {} us/request, pooled: {} us/request, pooled connections: {}",
+                TimeUnit.NANOSECONDS.toMicros(legacy / REQUESTS),
+                TimeUnit.NANOSECONDS.toMicros(okhttp / REQUESTS),
+                pooled.getConnectionCount());
+    }
+
+    private long run(final HttpConnectionFactory factory, final int requests) throws IOException {
+        ExtendedGitHubClient client = new ExtendedGitHubClient("localhost", server.getAddress().getPort(), "http");
+        client.setConnectionFactory(factory);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            ExtendedPullRequest pullRequest = (ExtendedPullRequest) client.get(new GitHubRequest()
+                    .setUri("/repos/owner/repo/pulls/1")
+                    .setType(ExtendedPullRequest.class)).getBody();
+            assertEquals(1, pullRequest.getNumber());
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,99 @@
+package org.jenkinsci.plugins.pipeline.github.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class HttpConnectionFactoryTest {
+
+    private static final byte[] BODY = "{\"number\":1,\"title\":\"stub\"}".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private final Set<String> remoteAddresses = Collections.synchronizedSet(new HashSet<>());
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            remoteAddresses.add(exchange.getRemoteAddress().toString());
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void legacyTransportFetchesThroughTheClient() throws IOException {
+        assertEquals(1, fetch(client(DefaultHttpConnectionFactory.INSTANCE)).getNumber());
+    }
+
+    @Test
+    public void pooledTransportReusesItsConnection() throws IOException {
+        OkHttpConnectionFactory pooled = new OkHttpConnectionFactory(5, 60_000, 5_000, 5_000);
+        ExtendedGitHubClient client = client(pooled);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, fetch(client).getNumber());
+        }
+
+        assertEquals(1, remoteAddresses.size());
+        assertEquals(1, pooled.getConnectionCount());
+    }
+
+    @Test
+    public void clientOpensEveryConnectionThroughItsFactory() throws IOException {
+        List<URL> opened = new ArrayList<>();
+        ExtendedGitHubClient client = client(url -> {
+            opened.add(url);
+            return DefaultHttpConnectionFactory.INSTANCE.create(url);
+        });
+        fetch(client);
+        fetch(client);
+
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).toString().endsWith("/repos/owner/repo/pulls/1"));
+    }
+
+    @Test
+    public void nullFactoryFallsBackToTheLegacyTransport() {
+        ExtendedGitHubClient client = new ExtendedGitHubClient().setConnectionFactory(null);
+        assertEquals(DefaultHttpConnectionFactory.INSTANCE, client.getConnectionFactory());
+    }
+
+    private ExtendedGitHubClient client(final HttpConnectionFactory factory) {
+        return new ExtendedGitHubClient("localhost", server.getAddress().getPort(), "http")
+                .setConnectionFactory(factory);
+    }
+
+    private static ExtendedPullRequest fetch(final ExtendedGitHubClient client) throws IOException {
+        return (ExtendedPullRequest) client.get(new GitHubRequest()
+                .setUri("/repos/owner/repo/pulls/1")
+                .setType(ExtendedPullRequest.class)).getBody();
+    }
+}
@@ -0,0 +1,218 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import org.jenkinsci.plugins.pipeline.github.client.CheckRunAnnotation;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class AnnotationReportFormatTest {
+
+    private static final String WORKSPACE = "/var/jenkins/workspace/job";
+
+    @Test
+    public void checkstylePathsAreMadeRelativeToTheWorkspace() throws Exception {
+        List<CheckRunAnnotation> annotations = parse(AnnotationReportFormat.CHECKSTYLE,
+                "<?xml version=\"1.0\"?>\n"
+                        + "<checkstyle version=\"8.0\">\n"
+                        + "  <file name=\"/var/jenkins/workspace/job/src/Main.java\">\n"
+                        + "    <error line=\"12\" severity=\"error\" message=\"Missing javadoc\" source=\"JavadocCheck\"/>\n"
+                        + "  </file>\n"
+                        + "  <file name=\"C:\\work\\src\\Other.java\">\n"
+                        + "    <error line=\"3\" severity=\"warning\" message=\"Line too long\"/>\n"
+                        + "  </file>\n"
+                        + "  <file name=\"src/Relative.java\">\n"
+                        + "    <error line=\"7\" severity=\"info\" message=\"Unused import\"/>\n"
+                        + "  </file>\n"
+                        + "</checkstyle>");
+
+        assertEquals(3, annotations.size());
+        check(annotations.get(0), "src/Main.java", 12, 12, CheckRunAnnotation.FAILURE, "Missing javadoc");
+        assertEquals("JavadocCheck", annotations.get(0).getTitle());
+        // outside the workspace, only the separators change
+        check(annotations.get(1), "C:/work/src/Other.java", 3, 3, CheckRunAnnotation.WARNING, "Line too long");
+        check(annotations.get(2), "src/Relative.java", 7, 7, CheckRunAnnotation.NOTICE, "Unused import");
+    }
+
+    @Test
+    public void checkstyleSeveritiesAreMapped() throws Exception {
+        List<CheckRunAnnotation> annotations = parse(AnnotationReportFormat.CHECKSTYLE,
+                "<checkstyle><file name=\"A.java\">"
+                        + "<error line=\"1\" severity=\"error\" message=\"m\"/>"
+                        + "<error line=\"1\" severity=\"ERROR\" message=\"m\"/>"
+                        + "<error line=\"1\" severity=\"warning\" message=\"m\"/>"
+                        + "<error line=\"1\" severity=\"info\" message=\"m\"/>"
+                        + "<error line=\"1\" severity=\"ignore\" message=\"m\"/>"
+                        + "<error line=\"1\" message=\"m\"/>"
+                        + "</file></checkstyle>");
+
+        assertEquals(6, annotations.size());
+        assertEquals(CheckRunAnnotation.FAILURE, annotations.get(0).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.FAILURE, annotations.get(1).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.WARNING, annotations.get(2).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.NOTICE, annotations.get(3).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.WARNING, annotations.get(4).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.WARNING, annotations.get(5).getAnnotationLevel());
+    }
+
+    @Test
+    public void checkstyleMissingMessagesAndLinesFallBack() throws Exception {
+        List<CheckRunAnnotation> annotations = parse(AnnotationReportFormat.CHECKSTYLE,
+                "<checkstyle><file name=\"A.java\">"
+                        + "<error severity=\"error\" source=\"SomeCheck\"/>"
+                        + "<error line=\"nope\" severity=\"error\" message=\"  \"/>"
+                        + "</file></checkstyle>");
+
+        assertEquals(2, annotations.size());
+        check(annotations.get(0), "A.java", 1, 1, CheckRunAnnotation.FAILURE, "SomeCheck");
+        check(annotations.get(1), "A.java", 1, 1, CheckRunAnnotation.FAILURE, "No message given");
+        assertNull(annotations.get(1).getTitle());
+    }
+
+    @Test
+    public void checkstyleDoctypesAreRefused() {
+        try {
+            parse(AnnotationReportFormat.CHECKSTYLE,
+                    "<?xml version=\"1.0\"?><!DOCTYPE checkstyle [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+                            + "<checkstyle><file name=\"A.java\"><error line=\"1\" message=\"&x;\"/></file></checkstyle>");
+            fail("expected the report to be refused");
+        } catch (final IOException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void sarifPathsAreMadeRelativeToTheWorkspace() throws Exception {
+        List<CheckRunAnnotation> annotations = parse(AnnotationReportFormat.SARIF,
+                "{\"version\": \"2.1.0\", \"runs\": [{\"tool\": {\"driver\": {\"name\": \"lint\"}}, \"results\": ["
+                        + result("file:///var/jenkins/workspace/job/src/Main.java", "error", "Null dereference",
+                        "NP001", "{\"startLine\": 4, \"endLine\": 6}")
+                        + ", " + result("/var/jenkins/workspace/job/src/Other.java", "warning", "Unused", "U1",
+                        "{\"startLine\": 9}")
+                        + ", " + result("src/Relative.java", "note", "Consider final", "F1", null)
+                        + "]}]}");
+
+        assertEquals(3, annotations.size());
+        check(annotations.get(0), "src/Main.java", 4, 6, CheckRunAnnotation.FAILURE, "Null dereference");
+        assertEquals("NP001", annotations.get(0).getTitle());
+        check(annotations.get(1), "src/Other.java", 9, 9, CheckRunAnnotation.WARNING, "Unused");
+        check(annotations.get(2), "src/Relative.java", 1, 1, CheckRunAnnotation.NOTICE, "Consider final");
+    }
+
+    @Test
+    public void sarifLevelsAreMapped() throws Exception {
+        List<CheckRunAnnotation> annotations = parse(AnnotationReportFormat.SARIF,
+                "{\"runs\": [{\"results\": ["
+                        + result("A.java", "error", "m", null, null) + ", "
+                        + result("A.java", "warning", "m", null, null) + ", "
+                        + result("A.java", "note", "m", null, null) + ", "
+                        + result("A.java", "none", "m", null, null) + ", "
+                        + result("A.java", null, "m", null, null)
+                        + "]}]}");
+
+        assertEquals(5, annotations.size());
+        assertEquals(CheckRunAnnotation.FAILURE, annotations.get(0).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.WARNING, annotations.get(1).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.NOTICE, annotations.get(2).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.NOTICE, annotations.get(3).getAnnotationLevel());
+        assertEquals(CheckRunAnnotation.WARNING, annotations.get(4).getAnnotationLevel());
+    }
+
+    @Test
+    public void sarifMissingMessagesFallBack() throws Exception {
+        List<CheckRunAnnotation> annotations = parse(AnnotationReportFormat.SARIF,
+                "{\"runs\": [{\"results\": ["
+                        + result("A.java", "error", null, "R1", null) + ", "
+                        + result("A.java", "error", null, null, null)
+                        + "]}]}");
+
+        assertEquals(2, annotations.size());
+        check(annotations.get(0), "A.java", 1, 1, CheckRunAnnotation.FAILURE, "R1");
+        check(annotations.get(1), "A.java", 1, 1, CheckRunAnnotation.FAILURE, "No message given");
+    }
+
+    @Test
+    public void sarifResultsWithoutALocationAreSkipped() throws Exception {
+        List<CheckRunAnnotation> annotations = parse(AnnotationReportFormat.SARIF,
+                "{\"runs\": ["
+                        + "{\"results\": ["
+                        + "{\"ruleId\": \"R1\", \"message\": {\"text\": \"no locations\"}}, "
+                        + "{\"ruleId\": \"R2\", \"message\": {\"text\": \"empty locations\"}, \"locations\": []}, "
+                        + "{\"ruleId\": \"R3\", \"message\": {\"text\": \"logical only\"},"
+                        + " \"locations\": [{\"logicalLocations\": [{\"name\": \"Main\"}]}]}, "
+                        + result("A.java", "error", "located", "R4", null)
+                        + "]}, "
+                        + "{\"results\": null}, "
+                        + "{\"tool\": {}}"
+                        + "]}");
+
+        assertEquals(1, annotations.size());
+        check(annotations.get(0), "A.java", 1, 1, CheckRunAnnotation.FAILURE, "located");
+    }
+
+    @Test
+    public void formatsAreLookedUpByName() {
+        assertEquals(AnnotationReportFormat.CHECKSTYLE, AnnotationReportFormat.of("checkstyle"));
+        assertEquals(AnnotationReportFormat.SARIF, AnnotationReportFormat.of("SARIF"));
+        try {
+            AnnotationReportFormat.of("pmd");
+            fail("expected pmd to be unsupported");
+        } catch (final IllegalArgumentException e) {
+            assertEquals("Unsupported report format: pmd, expected checkstyle or sarif", e.getMessage());
+        }
+    }
+
+    private static List<CheckRunAnnotation> parse(final AnnotationReportFormat format, final String report)
+            throws IOException {
+        List<CheckRunAnnotation> annotations = new ArrayList<>();
+        format.parse(new ByteArrayInputStream(report.getBytes(StandardCharsets.UTF_8)), WORKSPACE,
+                annotations::add);
+        return annotations;
+    }
+
+    private static String result(final String uri,
+                                 final String level,
+                                 final String message,
+                                 final String ruleId,
+                                 final String region) {
+        StringBuilder result = new StringBuilder("{");
+        if (ruleId != null) {
+            result.append("\"ruleId\": \"").append(ruleId).append("\", ");
+        }
+        if (level != null) {
+            result.append("\"level\": \"").append(level).append("\", ");
+        }
+        if (message != null) {
+            result.append("\"message\": {\"text\": \"").append(message).append("\"}, ");
+        }
+        result.append("\"locations\": [{\"physicalLocation\": {\"artifactLocation\": {\"uri\": \"")
+                .append(uri).append("\"}");
+        if (region != null) {
+            result.append(", \"region\": ").append(region);
+        }
+        return result.append("}}]}").toString();
+    }
+
+    private static void check(final CheckRunAnnotation annotation,
+                              final String path,
+                              final int startLine,
+                              final int endLine,
+                              final String level,
+                              final String message) {
+        assertEquals(path, annotation.getPath());
+        assertEquals(startLine, annotation.getStartLine());
+        assertEquals(endLine, annotation.getEndLine());
+        assertEquals(level, annotation.getAnnotationLevel());
+        assertEquals(message, annotation.getMessage());
+    }
+}
@@ -0,0 +1,96 @@
+package org.jenkinsci.plugins.pipeline.github.steps;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.jenkinsci.plugins.pipeline.github.client.CheckRunAnnotation;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedCheckRun;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedChecksService;
+import org.jenkinsci.plugins.pipeline.github.client.ExtendedGitHubClient;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class AnnotationUploaderTest {
+
+    private static final RepositoryId REPOSITORY = RepositoryId.create("jenkinsci", "pipeline-github-plugin");
+
+    @Test
+    public void annotationsAreSentInFullBatchesAndTheRestOnFlush() throws Exception {
+        RecordingService service = new RecordingService();
+        AnnotationUploader uploader = new AnnotationUploader(service, REPOSITORY, 42, "Lint", "120 findings");
+
+        for (int i = 0; i < 120; i++) {
+            uploader.accept(annotation(i));
+            // a batch goes out as soon as it's full, not before
+            assertEquals((i + 1) / ExtendedChecksService.MAX_ANNOTATIONS, service.batches.size());
+        }
+        uploader.flush();
+
+        assertEquals(Arrays.asList(50, 50, 20), service.sizes());
+        assertEquals(120, uploader.getCount());
+        assertEquals(3, uploader.getRequests());
+        // in order, none left out
+        assertEquals("src/File0.java", service.batches.get(0).get(0).getPath());
+        assertEquals("src/File50.java", service.batches.get(1).get(0).getPath());
+        assertEquals("src/File119.java", service.batches.get(2).get(19).getPath());
+    }
+
+    @Test
+    public void flushingAnEmptyBatchSendsNothing() throws Exception {
+        RecordingService service = new RecordingService();
+        AnnotationUploader uploader = new AnnotationUploader(service, REPOSITORY, 42, "Lint", "No findings");
+
+        uploader.flush();
+        for (int i = 0; i < ExtendedChecksService.MAX_ANNOTATIONS; i++) {
+            uploader.accept(annotation(i));
+        }
+        uploader.flush();
+
+        assertEquals(Arrays.asList(50), service.sizes());
+        assertEquals(1, uploader.getRequests());
+    }
+
+    private static CheckRunAnnotation annotation(final int i) {
+        return new CheckRunAnnotation()
+                .setPath("src/File" + i + ".java")
+                .setStartLine(i + 1)
+                .setEndLine(i + 1)
+                .setAnnotationLevel(CheckRunAnnotation.WARNING)
+                .setMessage("Finding " + i);
+    }
+
+    private static final class RecordingService extends ExtendedChecksService {
+        private final List<List<CheckRunAnnotation>> batches = new ArrayList<>();
+
+        private RecordingService() {
+            super(new ExtendedGitHubClient());
+        }
+
+        @Override
+        public ExtendedCheckRun addAnnotations(final IRepositoryIdProvider repository,
+                                               final long id,
+                                               final String title,
+                                               final String summary,
+                                               final List<CheckRunAnnotation> annotations) {
+            assertEquals(42, id);
+            // the uploader reuses its batch, so keep a copy
+            batches.add(new ArrayList<>(annotations));
+            return new ExtendedCheckRun();
+        }
+
+        private List<Integer> sizes() {
+            List<Integer> sizes = new ArrayList<>();
+            for (final List<CheckRunAnnotation> batch : batches) {
+                sizes.add(batch.size());
+            }
+            return sizes;
+        }
+    }
+}
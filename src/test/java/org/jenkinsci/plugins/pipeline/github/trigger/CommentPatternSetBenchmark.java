@@ -0,0 +1,90 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures how many comments per second a job's triggers handle as the number of patterns grows, matching
+ * precompiled patterns, the linear-time matcher, and compiling every pattern per comment.
+ *
+ * Not part of the default build, run with {@code mvn test -Pbenchmark}.
+ *
+ * @author Aaron Whiteside
+ */
+public class CommentPatternSetBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommentPatternSetBenchmark.class);
+
+    private static final int COMMENTS = 20_000;
+
+    @Test
+    public void commentsPerSecond() {
+        for (final int count : new int[]{1, 10, 100}) {
+            List<Pattern> patterns = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                patterns.add(Pattern.compile("(?s).*\\bjenkins (?:re)?run stage-" + i + "\\b.*"));
+            }
+            List<String> comments = new ArrayList<>(COMMENTS);
+            for (int i = 0; i < COMMENTS; i++) {
+                comments.add("Looks good to me, a couple of nits inline.\n\njenkins rerun stage-" + (i % (count * 2))
+                        + "\n\nThanks!");
+            }
+
+            CommentPatternSet patternSet = new CommentPatternSet(patterns, new BitSet());
+            BitSet all = new BitSet();
+            all.set(0, count);
+            CommentPatternSet linearSet = new CommentPatternSet(patterns, all);
+
+            // warm up each so JIT compilation isn't measured
+            run(patternSet, comments);
+            run(linearSet, comments);
+            runRecompiled(patterns, comments);
+
+            long precompiled = run(patternSet, comments);
+            long linear = run(linearSet, comments);
+            long recompiled = runRecompiled(patterns, comments);
+
+            LOG.info("{} patterns: precompiled {} comments/s, linear-time {} comments/s, recompiled {} comments/s",
+                    count, perSecond(precompiled), perSecond(linear), perSecond(recompiled));
+        }
+    }
+
+    private static long run(final CommentPatternSet patternSet, final List<String> comments) {
+        int matched = 0;
+        long start = System.nanoTime();
+        for (final String comment : comments) {
+            matched += patternSet.match(comment).cardinality();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(matched > 0);
+        return elapsed;
+    }
+
+    private static long runRecompiled(final List<Pattern> patterns, final List<String> comments) {
+        int matched = 0;
+        long start = System.nanoTime();
+        for (final String comment : comments) {
+            for (final Pattern pattern : patterns) {
+                if (Pattern.compile(pattern.pattern()).matcher(comment).matches()) {
+                    matched++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(matched > 0);
+        return elapsed;
+    }
+
+    private static long perSecond(final long nanos) {
+        return COMMENTS * TimeUnit.SECONDS.toNanos(1) / Math.max(nanos, 1);
+    }
+}
@@ -0,0 +1,58 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Aaron Whiteside
+ */
+public class CommentPatternSetTest {
+
+    @Test
+    public void reportsEveryMatchingPattern() {
+        List<Pattern> patterns = Arrays.asList(
+                Pattern.compile("(?i)retest.*"),
+                Pattern.compile(".*please.*"),
+                Pattern.compile("(\\w+) this"),
+                Pattern.compile("(\\w+) \\1"),
+                Pattern.compile("deploy", Pattern.CASE_INSENSITIVE));
+
+        CommentPatternSet patternSet = new CommentPatternSet(patterns, new BitSet());
+
+        assertEquals(5, patternSet.size());
+        assertEquals(bits(0, 1), patternSet.match("Retest please"));
+        assertEquals(bits(0, 2), patternSet.match("retest this"));
+        assertEquals(bits(3), patternSet.match("go go"));
+        assertEquals(bits(4), patternSet.match("DEPLOY"));
+        assertEquals(bits(), patternSet.match("nothing to see"));
+    }
+
+    @Test
+    public void reportsLinearTimePatternsAtTheirOwnIndexes() {
+        List<Pattern> patterns = Arrays.asList(
+                Pattern.compile("(\\w+) \\1"),
+                Pattern.compile("rebuild .*"),
+                Pattern.compile(".*please"),
+                Pattern.compile("rebuild (unit|it)s? please"));
+
+        CommentPatternSet patternSet = new CommentPatternSet(patterns, bits(1, 3));
+
+        assertEquals(bits(1, 2, 3), patternSet.match("rebuild units please"));
+        assertEquals(bits(1), patternSet.match("rebuild everything"));
+        assertEquals(bits(0), patternSet.match("again again"));
+    }
+
+    private static BitSet bits(final int... indexes) {
+        BitSet bits = new BitSet();
+        for (final int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
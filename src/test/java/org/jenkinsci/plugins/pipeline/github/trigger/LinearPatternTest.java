@@ -0,0 +1,106 @@
+package org.jenkinsci.plugins.pipeline.github.trigger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the linear-time matcher agrees with java.util.regex on the syntax it supports, and rejects the rest.
+ *
+ * @author Aaron Whiteside
+ */
+public class LinearPatternTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            "retest this please",
+            "(?i)retest\\s+(this|that)\\s*please",
+            ".*\\bjenkins\\b.*",
+            "(?s).*\\bjenkins\\b.*",
+            "[^\\d\\s]+-[a-f0-9]{2,4}",
+            "(?:ab|a)*c?",
+            "(a*)*b",
+            "x{3}|y{1,}|z{0,2}",
+            "(?<verb>deploy|rollback) to (prod|staging)\\.?",
+            "^\\w+$",
+            "(?m)^ok$\\n.*",
+            "\\x41\\u0042\\t[\\-+]\\.",
+            "(?i:[A-Z]+)-(?-i:[a-z]+)",
+            "\\Bb\\B.*",
+            "");
+
+    private static final List<String> COMMENTS = Arrays.asList(
+            "retest this please",
+            "RETEST  that please",
+            "please jenkins do it",
+            "line one\njenkins",
+            "abc-ff",
+            "x1-0f0f",
+            "ababac",
+            "aaaab",
+            "xxx",
+            "yyyy",
+            "zz",
+            "zzz",
+            "deploy to prod.",
+            "rollback to staging",
+            "word",
+            "word\n",
+            "ok\nrest",
+            "AB\t-.",
+            "ABC-abc",
+            "ABC-ABC",
+            "abbbc",
+            "",
+            "\u00e9t\u00e9 \ud83d\ude00");
+
+    @Test
+    public void agreesWithJavaRegex() {
+        LinearPattern linear = LinearPattern.compile(PATTERNS);
+        for (final String comment : COMMENTS) {
+            BitSet expected = new BitSet();
+            for (int i = 0; i < PATTERNS.size(); i++) {
+                if (Pattern.compile(PATTERNS.get(i)).matcher(comment).matches()) {
+                    expected.set(i);
+                }
+            }
+            assertEquals("Comment: " + comment, expected, linear.match(comment, CommentMatchBudget.start()));
+        }
+    }
+
+    @Test
+    public void pathologicalPatternRunsInLinearTime() {
+        StringBuilder comment = new StringBuilder();
+        for (int i = 0; i < 60_000; i++) {
+            comment.append('a');
+        }
+        comment.append('!');
+
+        LinearPattern linear = LinearPattern.compile(Collections.singletonList("(a+)+b"));
+        CommentMatchBudget budget = CommentMatchBudget.start();
+        assertTrue(linear.match(comment, budget).isEmpty());
+        // a handful of threads per character, where backtracking would be exponential in the length
+        assertTrue("spent " + budget.getSpent(), budget.getSpent() <= 10L * comment.length());
+    }
+
+    @Test
+    public void rejectsUnsupportedSyntax() {
+        for (final String regex : Arrays.asList("(\\w+) \\1", "(?=a)a", "(?<!a)b", "(?>a)", "a*+", "\\Qa\\E",
+                "(?x)a", "\\p{Alpha}", "[a[b]]", "[a&&b]", "a{100000}")) {
+            try {
+                LinearPattern.compile(Collections.singletonList(regex));
+                fail("Expected " + regex + " to be rejected");
+            } catch (final PatternSyntaxException e) {
+                // expected
+            }
+        }
+    }
+}